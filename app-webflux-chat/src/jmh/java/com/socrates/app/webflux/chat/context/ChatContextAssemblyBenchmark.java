@@ -0,0 +1,71 @@
+package com.socrates.app.webflux.chat.context;
+
+import com.socrates.app.webflux.chat.config.ChatContextProperties;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 턴마다 실행되는 히스토리 -> FastAPI 요청 변환 비용 (컨텍스트 윈도우 선택 + user_input 조립).
+ * 요약은 MongoDB 조회가 필요하므로 비활성화 상태로 측정합니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatContextAssemblyBenchmark {
+
+    private static final String USER_MESSAGE = "재귀함수에서 종료 조건은 왜 필요한가요?";
+    private static final String ASSISTANT_MESSAGE =
+            "좋은 질문이에요. 종료 조건이 없다면 함수가 자기 자신을 계속 호출하면 어떤 일이 생길까요? "
+                    + "호출 스택이 어떻게 쌓이는지 한번 그려 볼까요?";
+
+    @Param({"1", "10", "50", "200"})
+    private int turns;
+
+    private ChatContextAssembler assembler;
+    private ChatRequest request;
+
+    @Setup
+    public void setUp() {
+        ChatContextProperties properties = new ChatContextProperties();
+        properties.setEnabled(true);
+        properties.getSummary().setEnabled(false);
+        assembler = new ChatContextAssembler(properties, null, new SimpleMeterRegistry());
+
+        List<ChatRequest.ChatHistoryItem> history = new ArrayList<>(turns);
+        for (int i = 0; i < turns; i++) {
+            history.add(ChatRequest.ChatHistoryItem.builder()
+                    .userMessage(USER_MESSAGE)
+                    .assistantMessage(ASSISTANT_MESSAGE)
+                    .build());
+        }
+        request = ChatRequest.builder()
+                .userId("user-1")
+                .sessionId("session-1")
+                .message(USER_MESSAGE)
+                .history(history)
+                .build();
+    }
+
+    @Benchmark
+    public FastApiChatRequest assemble() {
+        return assembler.assemble(request).block();
+    }
+
+    @Benchmark
+    public ChatContextWindow selectWindow() {
+        return assembler.selectWindow(request.getHistory(), request.getMessage());
+    }
+}
@@ -0,0 +1,76 @@
+package com.socrates.app.webflux.chat.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FastAPI 요청 직렬화(턴당 1회)와 스트림 응답 청크 역직렬화(청크당 1회) 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FastApiJsonBenchmark {
+
+    private static final String RESPONSE_CHUNK = """
+            {"success":true,"is_completed":false,"data":{"user_facing_message":"호출 스택이 어떻게 쌓이는지 ",\
+            "is_stuck":false,"next_action":"ask_question"}}""";
+
+    @Param({"1", "20", "200"})
+    private int turns;
+
+    private FastApiChatRequest request;
+    private byte[] requestJson;
+    private byte[] responseJson;
+    private ObjectWriter requestWriter;
+    private ObjectReader requestReader;
+    private ObjectReader responseReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> userInput = new ArrayList<>(turns * 2 + 1);
+        for (int i = 0; i < turns; i++) {
+            userInput.add("재귀함수에서 종료 조건은 왜 필요한가요?");
+            userInput.add("종료 조건이 없다면 함수가 자기 자신을 계속 호출하면 어떤 일이 생길까요?");
+        }
+        userInput.add("스택 오버플로가 나요");
+        request = FastApiChatRequest.builder()
+                .data(FastApiChatRequest.DataWrapper.builder().user_input(userInput).build())
+                .build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        requestWriter = objectMapper.writerFor(FastApiChatRequest.class);
+        requestReader = objectMapper.readerFor(FastApiChatRequest.class);
+        responseReader = objectMapper.readerFor(FastApiChatResponse.class);
+        requestJson = requestWriter.writeValueAsBytes(request);
+        responseJson = RESPONSE_CHUNK.getBytes();
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws IOException {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public FastApiChatRequest deserializeRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public FastApiChatResponse deserializeResponseChunk() throws IOException {
+        return responseReader.readValue(responseJson);
+    }
+}
@@ -0,0 +1,121 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메시지 완료 처리의 왕복 횟수/지연 비교. 실행 중인 MongoDB가 필요합니다.
+ * (MONGODB_URI, 기본값 mongodb://localhost:27017/chatdb_bench)
+ * legacy: findById + 전체 문서 save (2 round trips)
+ * atomic: 상태 조건부 findAndModify $set (1 round trip)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatMessageTransitionBenchmark {
+
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong measuredCommands = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+
+    private MongoClient mongoClient;
+    private ReactiveMongoTemplate mongoTemplate;
+    private ChatMessage pending;
+    private long commandsBefore;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        String uri = System.getenv().getOrDefault("MONGODB_URI", "mongodb://localhost:27017/chatdb_bench");
+        ConnectionString connectionString = new ConnectionString(uri);
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(connectionString)
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        commands.incrementAndGet();
+                    }
+                })
+                .build();
+        mongoClient = MongoClients.create(settings);
+        String database = connectionString.getDatabase() != null ? connectionString.getDatabase() : "chatdb_bench";
+        mongoTemplate = new ReactiveMongoTemplate(mongoClient, database);
+    }
+
+    @Setup(Level.Invocation)
+    public void insertPendingMessage() {
+        pending = mongoTemplate.insert(ChatMessage.builder()
+                        .userId("bench-user")
+                        .sessionId("bench-session")
+                        .userMessage("재귀함수가 뭐예요?")
+                        .createdAt(LocalDateTime.now())
+                        .status(ChatMessage.MessageStatus.STREAMING)
+                        .build())
+                .block();
+        commandsBefore = commands.get();
+    }
+
+    @TearDown(Level.Invocation)
+    public void countRoundTrips() {
+        measuredCommands.addAndGet(commands.get() - commandsBefore);
+        operations.incrementAndGet();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (operations.get() > 0) {
+            System.out.printf("%nround trips per transition: %.2f%n",
+                    (double) measuredCommands.get() / operations.get());
+        }
+        mongoTemplate.dropCollection(ChatMessage.class).block();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public ChatMessage legacyFindAndSave() {
+        return mongoTemplate.findById(pending.getId(), ChatMessage.class)
+                .flatMap(message -> {
+                    message.setAssistantMessage("재귀함수는 자기 자신을 호출하는 함수입니다.");
+                    message.setCompletedAt(LocalDateTime.now());
+                    message.setStatus(ChatMessage.MessageStatus.COMPLETED);
+                    message.setIsComplete(false);
+                    return mongoTemplate.save(message);
+                })
+                .block();
+    }
+
+    @Benchmark
+    public ChatMessage atomicFindAndModify() {
+        Query query = Query.query(Criteria.where("id").is(pending.getId())
+                .and("status").in(ChatMessage.MessageStatus.PENDING, ChatMessage.MessageStatus.STREAMING));
+        Update update = new Update()
+                .set("assistantMessage", "재귀함수는 자기 자신을 호출하는 함수입니다.")
+                .set("completedAt", LocalDateTime.now())
+                .set("status", ChatMessage.MessageStatus.COMPLETED)
+                .set("isComplete", false);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), ChatMessage.class)
+                .block();
+    }
+}
@@ -0,0 +1,94 @@
+package com.socrates.app.webflux.chat.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 하나를 단어 단위 SSE 프레임으로 인코딩하는 비용 비교.
+ * legacy: 정규식 split + ServerSentEvent + ServerSentEventHttpMessageWriter 방식의 문자열 조립
+ * encoder: SseTextSplitter + SseFrameEncoder (풀링 버퍼에 직접 기록)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SseEncodingBenchmark {
+
+    private static final String SENTENCE =
+            "재귀함수는 자기 자신을 다시 호출하는 함수입니다. 종료 조건이 없으면 스택 오버플로가 발생합니다. ";
+
+    @Param({"1", "10", "40"})
+    private int sentences;
+
+    private String content;
+    private ObjectMapper objectMapper;
+    private SseFrameEncoder encoder;
+    private DataBufferFactory bufferFactory;
+
+    @Setup
+    public void setUp() {
+        content = SENTENCE.repeat(sentences);
+        objectMapper = new ObjectMapper();
+        encoder = new SseFrameEncoder(objectMapper);
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) throws JsonProcessingException {
+        for (String word : content.split("(?<=\\s)|(?=\\s)")) {
+            writeLegacy(blackhole, toServerSentEvent(SseEvent.chatMessage(word)));
+        }
+        writeLegacy(blackhole, toServerSentEvent(SseEvent.chatEnd("session-1")));
+    }
+
+    @Benchmark
+    public void encoder(Blackhole blackhole) {
+        for (String word : SseTextSplitter.splitWords(content)) {
+            release(blackhole, encoder.encode(SseEvent.chatMessage(word), bufferFactory));
+        }
+        release(blackhole, encoder.encode(SseEvent.chatEnd("session-1"), bufferFactory));
+    }
+
+    private ServerSentEvent<String> toServerSentEvent(SseEvent event) throws JsonProcessingException {
+        String data = event.getData() instanceof String text
+                ? text
+                : objectMapper.writeValueAsString(event.getData());
+        return ServerSentEvent.<String>builder()
+                .event(event.getEvent())
+                .data(data)
+                .build();
+    }
+
+    private void writeLegacy(Blackhole blackhole, ServerSentEvent<String> event) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("event:").append(event.event()).append('\n');
+        sb.append("data:");
+        String data = StringUtils.replace(event.data(), "\n", "\ndata:");
+        byte[] bytes = (sb + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        release(blackhole, bufferFactory.wrap(bytes));
+    }
+
+    private void release(Blackhole blackhole, DataBuffer buffer) {
+        blackhole.consume(buffer.readableByteCount());
+        DataBufferUtils.release(buffer);
+    }
+}
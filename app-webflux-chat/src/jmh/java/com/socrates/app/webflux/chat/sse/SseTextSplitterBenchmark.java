@@ -0,0 +1,45 @@
+package com.socrates.app.webflux.chat.sse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BUFFERED 모드에서 응답을 단어 단위로 나누는 비용 (기존 정규식 split과 비교).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SseTextSplitterBenchmark {
+
+    private static final String SENTENCE =
+            "재귀함수는 자기 자신을 다시 호출하는 함수입니다.\n종료 조건이 없으면 스택 오버플로가 발생합니다. ";
+
+    @Param({"1", "10", "40"})
+    private int sentences;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = SENTENCE.repeat(sentences);
+    }
+
+    @Benchmark
+    public String[] regexSplit() {
+        return content.split("(?<=\\s)|(?=\\s)");
+    }
+
+    @Benchmark
+    public List<String> splitWords() {
+        return SseTextSplitter.splitWords(content);
+    }
+}
@@ -2,8 +2,10 @@ package com.socrates.app.webflux.chat;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class WebfluxChatApplication {
 
 	public static void main(String[] args) {
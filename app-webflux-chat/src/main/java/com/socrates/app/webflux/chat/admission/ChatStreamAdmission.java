@@ -0,0 +1,141 @@
+package com.socrates.app.webflux.chat.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.socrates.app.webflux.chat.config.ChatAdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * /api/chat/stream 요청을 MongoDB 저장과 FastAPI 호출 전에 받아들일지 결정합니다.
+ * 전역 동시 스트림 수와 사용자별 동시 스트림 수를 제한하고,
+ * 최근에 턴을 완료한 세션은 priorityReserve만큼 전역 한도를 넘어서도 받아들입니다.
+ */
+@Slf4j
+@Component
+public class ChatStreamAdmission {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final ChatAdmissionProperties properties;
+    private final Cache<String, Boolean> activeSessions;
+    private final Map<String, Integer> streamsPerUser = new HashMap<>();
+    private int activeStreams;
+
+    private final Counter admitted;
+    private final Counter admittedPriority;
+    private final Counter rejectedGlobal;
+    private final Counter rejectedUser;
+
+    public ChatStreamAdmission(ChatAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.activeSessions = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getActiveSessionWindow())
+                .build();
+
+        Gauge.builder("chat.admission.active", this, ChatStreamAdmission::activeStreams)
+                .description("진행 중인 채팅 스트림 수")
+                .register(meterRegistry);
+        this.admitted = admittedCounter(meterRegistry, "false");
+        this.admittedPriority = admittedCounter(meterRegistry, "true");
+        this.rejectedGlobal = rejectedCounter(meterRegistry, "global");
+        this.rejectedUser = rejectedCounter(meterRegistry, "user");
+    }
+
+    /**
+     * @return 받아들였으면 스트림 종료 시 반납할 티켓, 거절했으면 null
+     */
+    public Ticket tryAdmit(String userId, String sessionId) {
+        if (!properties.isEnabled()) {
+            return new Ticket(null);
+        }
+
+        String user = userId != null ? userId : ANONYMOUS;
+        boolean midConversation = sessionId != null && activeSessions.getIfPresent(sessionId) != null;
+
+        boolean usedReserve;
+        synchronized (this) {
+            int userStreams = streamsPerUser.getOrDefault(user, 0);
+            if (userId != null && userStreams >= properties.getMaxStreamsPerUser()) {
+                rejectedUser.increment();
+                log.warn("사용자별 동시 스트림 한도 초과 - userId: {}, streams: {}", userId, userStreams);
+                return null;
+            }
+
+            int limit = properties.getMaxConcurrentStreams()
+                    + (midConversation ? properties.getPriorityReserve() : 0);
+            if (activeStreams >= limit) {
+                rejectedGlobal.increment();
+                log.warn("전역 동시 스트림 한도 초과 - active: {}, sessionId: {}", activeStreams, sessionId);
+                return null;
+            }
+
+            usedReserve = activeStreams >= properties.getMaxConcurrentStreams();
+            activeStreams++;
+            streamsPerUser.put(user, userStreams + 1);
+        }
+
+        if (usedReserve) {
+            admittedPriority.increment();
+        } else {
+            admitted.increment();
+        }
+        return new Ticket(user);
+    }
+
+    /**
+     * 턴이 완료 저장된 세션을 대화 중으로 표시합니다.
+     * 받아들이기만 하고 실패/취소된 요청으로는 우선 예약분을 쓸 수 없도록 완료 시점에만 표시합니다.
+     */
+    public void markActive(String sessionId) {
+        if (properties.isEnabled() && sessionId != null) {
+            activeSessions.put(sessionId, Boolean.TRUE);
+        }
+    }
+
+    public synchronized int activeStreams() {
+        return activeStreams;
+    }
+
+    private synchronized void release(String user) {
+        activeStreams--;
+        streamsPerUser.computeIfPresent(user, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static Counter admittedCounter(MeterRegistry meterRegistry, String priority) {
+        return Counter.builder("chat.admission.admitted")
+                .description("받아들인 채팅 스트림 요청 수")
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("chat.admission.rejected")
+                .description("동시 스트림 한도로 거절한 채팅 요청 수")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public final class Ticket {
+
+        private final String user;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Ticket(String user) {
+            this.user = user;
+        }
+
+        public void release() {
+            if (user != null && released.compareAndSet(false, true)) {
+                ChatStreamAdmission.this.release(user);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.socrates.app.webflux.chat.admission;
+
+import com.socrates.app.webflux.chat.config.ChatTurnQueueProperties;
+import com.socrates.app.webflux.chat.lock.RedisLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 레플리카 간 세션 턴 직렬화를 위한 Redis SET NX PX 락.
+ * Redis 장애 시에는 락을 획득한 것으로 보고 인스턴스 내 순서 보장만으로 진행합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionTurnLock {
+
+    private final RedisLease redisLease;
+    private final ChatTurnQueueProperties properties;
+
+    public Mono<Boolean> tryAcquire(String sessionId, String token) {
+        return redisLease.tryAcquire(key(sessionId), token, properties.getDistributed().getLockTtl())
+                .onErrorResume(error -> {
+                    log.warn("세션 턴 락 획득 실패, 로컬 순서로 진행 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * 턴이 lockTtl보다 길어져도 다른 레플리카가 락을 가져가지 않도록 만료 시간을 연장합니다.
+     * Redis 장애 시에는 연장된 것으로 봅니다.
+     */
+    public Mono<Boolean> renew(String sessionId, String token) {
+        return redisLease.renew(key(sessionId), token, properties.getDistributed().getLockTtl())
+                .onErrorResume(error -> {
+                    log.warn("세션 턴 락 연장 실패 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    public Mono<Void> release(String sessionId, String token) {
+        return redisLease.release(key(sessionId), token)
+                .onErrorResume(error -> {
+                    log.warn("세션 턴 락 해제 실패 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String key(String sessionId) {
+        return properties.getDistributed().getKeyPrefix() + sessionId;
+    }
+}
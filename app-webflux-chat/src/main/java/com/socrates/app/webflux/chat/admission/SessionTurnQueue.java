@@ -0,0 +1,332 @@
+package com.socrates.app.webflux.chat.admission;
+
+import com.socrates.app.webflux.chat.config.ChatTurnQueueProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 같은 세션의 채팅 턴을 세션별 메일박스로 직렬화합니다.
+ * 두 탭이나 중복 전송으로 같은 세션에 턴이 동시에 들어오면 둘 다 같은 히스토리로 FastAPI를 호출해
+ * 모델 호출이 낭비되고 대화 순서가 꼬이므로, 앞선 턴의 응답이 저장된 뒤에 다음 턴을 시작합니다.
+ * 분산 모드에서는 로컬 순서를 얻은 뒤 Redis 락까지 획득해야 턴을 시작하고, 턴이 끝날 때까지 lockTtl/3마다 락을 연장합니다.
+ * <ul>
+ *     <li>chat.turn.queue.acquired{outcome=immediate|queued|coalesced}</li>
+ *     <li>chat.turn.queue.rejected{reason=in_progress|queue_full|timeout|lock_timeout}</li>
+ *     <li>chat.turn.queue.wait: 앞선 턴을 기다린 시간, chat.turn.queue.waiting: 대기 중인 턴 수</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class SessionTurnQueue {
+
+    private final ChatTurnQueueProperties properties;
+    private final SessionTurnLock sessionTurnLock;
+    private final Map<String, Mailbox> mailboxes = new HashMap<>();
+    private int waiting;
+
+    private final Map<String, Counter> acquiredCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final MeterRegistry meterRegistry;
+
+    public SessionTurnQueue(ChatTurnQueueProperties properties,
+                            SessionTurnLock sessionTurnLock,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.sessionTurnLock = sessionTurnLock;
+        this.meterRegistry = meterRegistry;
+        this.waitTimer = Timer.builder("chat.turn.queue.wait")
+                .description("같은 세션의 앞선 턴이 끝나기를 기다린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chat.turn.queue.waiting", this, SessionTurnQueue::waitingTurns)
+                .description("앞선 턴 뒤에서 대기 중인 턴 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 턴을 시작할 차례가 되면 Turn을 반환합니다. 턴이 끝나면 반드시 {@link Turn#release()}를 호출해야 합니다.
+     * 진행 중이거나 대기 중인 턴과 requestId가 같은 재전송으로 합쳐진 경우에는 {@link Turn#isDuplicate()}가 true이며, 원래 턴의 메시지 id를 기다려 응답을 이어 받습니다.
+     * 거절되면 {@link SessionTurnRejectedException}으로 종료됩니다.
+     */
+    public Mono<Turn> acquire(String sessionId, String requestId) {
+        if (!properties.isEnabled() || sessionId == null) {
+            return Mono.fromSupplier(() -> new Turn(null, requestId));
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Turn turn = new Turn(sessionId, requestId);
+            Outcome outcome;
+            synchronized (this) {
+                outcome = enqueue(turn);
+            }
+
+            return switch (outcome) {
+                case IMMEDIATE -> lock(turn, start, "immediate");
+                case QUEUED -> {
+                    log.info("앞선 턴 대기 - sessionId: {}", sessionId);
+                    yield turn.granted.asMono()
+                            .timeout(properties.getQueueTimeout())
+                            .doOnCancel(() -> abandon(turn))
+                            .onErrorResume(TimeoutException.class, error -> {
+                                abandon(turn);
+                                return reject(sessionId, "timeout");
+                            })
+                            .then(Mono.defer(() -> lock(turn, start, "queued")));
+                }
+                case DUPLICATE -> {
+                    log.info("재전송된 요청을 진행 중인 턴과 합침 - sessionId: {}, requestId: {}", sessionId, requestId);
+                    acquired("coalesced").increment();
+                    yield Mono.just(turn);
+                }
+                case IN_PROGRESS -> reject(sessionId, "in_progress");
+                case QUEUE_FULL -> reject(sessionId, "queue_full");
+            };
+        });
+    }
+
+    private Outcome enqueue(Turn turn) {
+        Mailbox mailbox = mailboxes.get(turn.sessionId);
+        if (mailbox == null) {
+            mailbox = new Mailbox();
+            mailbox.active = turn;
+            mailboxes.put(turn.sessionId, mailbox);
+            return Outcome.IMMEDIATE;
+        }
+
+        ChatTurnQueueProperties.Mode mode = properties.getMode();
+        if (mode == ChatTurnQueueProperties.Mode.REJECT) {
+            return Outcome.IN_PROGRESS;
+        }
+        if (mode == ChatTurnQueueProperties.Mode.COALESCE) {
+            Turn original = mailbox.find(turn.requestId);
+            if (original != null) {
+                turn.original = original;
+                return Outcome.DUPLICATE;
+            }
+        }
+        if (mailbox.waiting.size() >= properties.getMaxQueued()) {
+            return Outcome.QUEUE_FULL;
+        }
+        mailbox.waiting.add(turn);
+        waiting++;
+        return Outcome.QUEUED;
+    }
+
+    private Mono<Turn> lock(Turn turn, long start, String outcome) {
+        ChatTurnQueueProperties.Distributed distributed = properties.getDistributed();
+        if (!distributed.isEnabled()) {
+            return Mono.fromSupplier(() -> acquiredAfter(turn, start, outcome));
+        }
+
+        String token = UUID.randomUUID().toString();
+        return Mono.defer(() -> sessionTurnLock.tryAcquire(turn.sessionId, token))
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(distributed.getRetryInterval()))
+                .timeout(properties.getQueueTimeout())
+                .map(locked -> {
+                    Disposable watchdog = renewEvery(turn.sessionId, token, distributed.getLockTtl().dividedBy(3));
+                    boolean released;
+                    synchronized (this) {
+                        released = turn.released;
+                        if (!released) {
+                            turn.lockToken = token;
+                            turn.watchdog = watchdog;
+                        }
+                    }
+                    if (released) {
+                        // 락을 잡는 사이 턴이 끝났다면 바로 반납합니다
+                        watchdog.dispose();
+                        sessionTurnLock.release(turn.sessionId, token).subscribe();
+                    }
+                    return acquiredAfter(turn, start, outcome);
+                })
+                .doOnCancel(turn::release)
+                .onErrorResume(TimeoutException.class, error -> {
+                    turn.release();
+                    return reject(turn.sessionId, "lock_timeout");
+                });
+    }
+
+    private Disposable renewEvery(String sessionId, String token, Duration interval) {
+        return Flux.interval(interval)
+                .concatMap(tick -> sessionTurnLock.renew(sessionId, token))
+                .filter(renewed -> !renewed)
+                .subscribe(lost -> log.warn("세션 턴 락을 잃음 - sessionId: {}", sessionId));
+    }
+
+    private Turn acquiredAfter(Turn turn, long start, String outcome) {
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        acquired(outcome).increment();
+        return turn;
+    }
+
+    /**
+     * 대기 중에 취소되거나 시간이 초과된 턴을 정리합니다. 그 사이 차례가 왔다면 바로 반납합니다.
+     */
+    private void abandon(Turn turn) {
+        boolean removed;
+        synchronized (this) {
+            Mailbox mailbox = mailboxes.get(turn.sessionId);
+            removed = mailbox != null && mailbox.waiting.remove(turn);
+            if (removed) {
+                waiting--;
+            }
+        }
+        if (removed) {
+            turn.messageId.tryEmitError(new SessionTurnRejectedException(turn.sessionId, "abandoned"));
+        } else {
+            turn.release();
+        }
+    }
+
+    private void release(Turn turn) {
+        Turn next = null;
+        String lockToken;
+        Disposable watchdog;
+        synchronized (this) {
+            if (turn.released) {
+                return;
+            }
+            turn.released = true;
+            lockToken = turn.lockToken;
+            watchdog = turn.watchdog;
+
+            Mailbox mailbox = mailboxes.get(turn.sessionId);
+            if (mailbox != null && mailbox.active == turn) {
+                next = mailbox.waiting.poll();
+                mailbox.active = next;
+                if (next != null) {
+                    waiting--;
+                } else {
+                    mailboxes.remove(turn.sessionId);
+                }
+            }
+        }
+
+        // 턴이 시작 전에 끝났다면 합쳐진 중복 요청도 함께 종료합니다
+        turn.messageId.tryEmitError(new SessionTurnRejectedException(turn.sessionId, "not_started"));
+        if (watchdog != null) {
+            watchdog.dispose();
+        }
+        if (lockToken != null) {
+            sessionTurnLock.release(turn.sessionId, lockToken).subscribe();
+        }
+        if (next != null) {
+            next.granted.tryEmitEmpty();
+        }
+    }
+
+    private <T> Mono<T> reject(String sessionId, String reason) {
+        rejectedCounters.computeIfAbsent(reason, name -> Counter.builder("chat.turn.queue.rejected")
+                        .description("같은 세션의 앞선 턴 때문에 거절된 턴 수")
+                        .tag("reason", name)
+                        .register(meterRegistry))
+                .increment();
+        log.warn("세션 턴 거절 - sessionId: {}, reason: {}", sessionId, reason);
+        return Mono.error(new SessionTurnRejectedException(sessionId, reason));
+    }
+
+    private Counter acquired(String outcome) {
+        return acquiredCounters.computeIfAbsent(outcome, name -> Counter.builder("chat.turn.queue.acquired")
+                .description("세션 턴 획득 방식별 수")
+                .tag("outcome", name)
+                .register(meterRegistry));
+    }
+
+    private synchronized int waitingTurns() {
+        return waiting;
+    }
+
+    private enum Outcome {
+        IMMEDIATE,
+        QUEUED,
+        DUPLICATE,
+        IN_PROGRESS,
+        QUEUE_FULL
+    }
+
+    private static final class Mailbox {
+
+        private Turn active;
+        private final Deque<Turn> waiting = new ArrayDeque<>();
+
+        private Turn find(String requestId) {
+            if (requestId == null) {
+                return null;
+            }
+            if (active != null && requestId.equals(active.requestId)) {
+                return active;
+            }
+            for (Turn turn : waiting) {
+                if (requestId.equals(turn.requestId)) {
+                    return turn;
+                }
+            }
+            return null;
+        }
+    }
+
+    public final class Turn {
+
+        private final String sessionId;
+        private final String requestId;
+        private final Sinks.One<Void> granted = Sinks.one();
+        private final Sinks.One<String> messageId = Sinks.one();
+        private Turn original;
+        private String lockToken;
+        private Disposable watchdog;
+        private boolean released;
+
+        private Turn(String sessionId, String requestId) {
+            this.sessionId = sessionId;
+            this.requestId = requestId;
+        }
+
+        public boolean isDuplicate() {
+            return original != null;
+        }
+
+        /**
+         * 중복 요청이 합쳐진 원래 턴의 메시지 id. 원래 턴이 시작하지 못하고 끝나면 오류로 종료됩니다.
+         */
+        public Mono<String> originalMessageId() {
+            return original != null ? original.messageId.asMono() : Mono.empty();
+        }
+
+        /**
+         * pending 메시지가 저장되어 id가 정해지면 호출합니다. 합쳐진 중복 요청이 이 id로 응답을 이어 받습니다.
+         */
+        public void started(String id) {
+            messageId.tryEmitValue(id);
+        }
+
+        /**
+         * 턴을 끝내고 다음 대기 턴을 시작시킵니다. 여러 번 호출해도 한 번만 반영됩니다.
+         */
+        public void release() {
+            if (sessionId != null && original == null) {
+                SessionTurnQueue.this.release(this);
+            }
+        }
+    }
+}
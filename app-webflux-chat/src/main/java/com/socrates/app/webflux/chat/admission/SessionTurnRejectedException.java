@@ -0,0 +1,19 @@
+package com.socrates.app.webflux.chat.admission;
+
+import lombok.Getter;
+
+/**
+ * 같은 세션의 앞선 턴 때문에 새 턴을 처리하지 못한 경우
+ */
+@Getter
+public class SessionTurnRejectedException extends RuntimeException {
+
+    private final String sessionId;
+    private final String reason;
+
+    public SessionTurnRejectedException(String sessionId, String reason) {
+        super("세션 턴 처리 거절 - sessionId: " + sessionId + ", reason: " + reason);
+        this.sessionId = sessionId;
+        this.reason = reason;
+    }
+}
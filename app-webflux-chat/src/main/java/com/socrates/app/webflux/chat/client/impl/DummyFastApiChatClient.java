@@ -1,5 +1,7 @@
 package com.socrates.app.webflux.chat.client.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.socrates.app.webflux.chat.client.FastApiChatClient;
 import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
 import com.socrates.app.webflux.chat.dto.FastApiChatResponse;
@@ -10,14 +12,16 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 public class DummyFastApiChatClient implements FastApiChatClient {
 
-    private final Map<String, Integer> sessionCounts = new ConcurrentHashMap<>();
+    // 세션이 끝나지 않은 채 버려져도 쌓이지 않도록 크기와 유지 시간을 제한합니다.
+    private final Cache<String, Integer> sessionCounts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
 
     @Override
     public Flux<FastApiChatResponse> streamChat(FastApiChatRequest request) {
@@ -30,8 +34,8 @@ public class DummyFastApiChatClient implements FastApiChatClient {
         log.info("더미 FastAPI 클라이언트 호출 - message: {}, inputCount: {}",
                 lastMessage, userInput.size());
 
-        String sessionKey = String.valueOf(userInput.hashCode());
-        int count = sessionCounts.merge(sessionKey, 1, Integer::sum);
+        String sessionKey = sessionKey(request);
+        int count = sessionCounts.asMap().merge(sessionKey, 1, Integer::sum);
         boolean isComplete = count >= 5;
 
         FastApiChatResponse response1 = FastApiChatResponse.builder()
@@ -55,7 +59,7 @@ public class DummyFastApiChatClient implements FastApiChatClient {
                 .build();
 
         if (isComplete) {
-            sessionCounts.remove(sessionKey);
+            sessionCounts.invalidate(sessionKey);
         }
 
         return Flux.just(response1, response2)
@@ -74,8 +78,8 @@ public class DummyFastApiChatClient implements FastApiChatClient {
         log.info("더미 FastAPI Mono 클라이언트 호출 - message: {}, inputCount: {}",
                 lastMessage, userInput.size());
 
-        String sessionKey = String.valueOf(userInput.hashCode());
-        int count = sessionCounts.merge(sessionKey, 1, Integer::sum);
+        String sessionKey = sessionKey(request);
+        int count = sessionCounts.asMap().merge(sessionKey, 1, Integer::sum);
         boolean isComplete = count >= 5;
 
         FastApiChatResponse response = FastApiChatResponse.builder()
@@ -89,12 +93,18 @@ public class DummyFastApiChatClient implements FastApiChatClient {
                 .build();
 
         if (isComplete) {
-            sessionCounts.remove(sessionKey);
+            sessionCounts.invalidate(sessionKey);
         }
 
         return Mono.just(response)
                 .delayElement(Duration.ofMillis(500))
                 .doOnSuccess(r -> log.info("더미 FastAPI Mono 응답 완료 - count: {}/5, isCompleted: {}", count, r.getIsCompleted()));
     }
-}
 
+    /**
+     * user_input의 첫 항목은 컨텍스트 윈도우나 요약으로 바뀔 수 있어, 요청에 담긴 세션 id를 키로 사용합니다.
+     */
+    private String sessionKey(FastApiChatRequest request) {
+        return request.getSessionId() != null ? request.getSessionId() : "";
+    }
+}
@@ -1,36 +1,58 @@
 package com.socrates.app.webflux.chat.client.impl;
 
 import com.socrates.app.webflux.chat.client.FastApiChatClient;
+import com.socrates.app.webflux.chat.client.limit.ChatLaneLatencyTracker;
+import com.socrates.app.webflux.chat.client.resilience.ResilientLane;
 import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
 import com.socrates.app.webflux.chat.dto.FastApiChatResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 @Primary
+@Profile("!loadtest")
 public class FastApiChatClientImpl implements FastApiChatClient {
 
-    private final WebClient fastapiWebClient;
+    private final WebClient fastapiChatWebClient;
+    private final ResilientLane fastapiChatLane;
+    private final ChatLaneLatencyTracker chatLaneLatencyTracker;
 
     @Override
     public Flux<FastApiChatResponse> streamChat(FastApiChatRequest request) {
         log.debug("FastAPI 채팅 스트림 호출 시작, 요청: {}", request);
 
-        return fastapiWebClient.post()
-                .uri("/chat/stream")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(request)
-                .accept(MediaType.TEXT_EVENT_STREAM)
-                .retrieve()
-                .bodyToFlux(FastApiChatResponse.class)
+        Flux<FastApiChatResponse> stream = Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return fastapiChatWebClient.post()
+                    .uri("/chat/stream")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .retrieve()
+                    .bodyToFlux(FastApiChatResponse.class)
+                    .doOnNext(data -> {
+                        // 스트림은 첫 토큰까지의 시간을 채팅 레인 지연으로 봅니다
+                        if (first.compareAndSet(true, false)) {
+                            chatLaneLatencyTracker.record(Duration.ofNanos(System.nanoTime() - start));
+                        }
+                    });
+        });
+
+        return fastapiChatLane.execute(stream)
                 .doOnNext(data -> log.trace("FastAPI로부터 데이터 수신: {}", data))
                 .doOnError(error -> log.error("FastAPI 오류 발생: {}", error.getMessage(), error))
                 .doOnComplete(() -> log.debug("FastAPI 스트림 종료"));
@@ -40,12 +62,17 @@ public class FastApiChatClientImpl implements FastApiChatClient {
     public Mono<FastApiChatResponse> chat(FastApiChatRequest request) {
         log.debug("FastAPI 채팅 Mono 호출 시작, 요청: {}", request);
 
-        return fastapiWebClient.post()
+        Mono<FastApiChatResponse> response = fastapiChatWebClient.post()
                 .uri("/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(FastApiChatResponse.class)
+                .elapsed()
+                .doOnNext(timed -> chatLaneLatencyTracker.record(Duration.ofMillis(timed.getT1())))
+                .map(Tuple2::getT2);
+
+        return fastapiChatLane.execute(response)
                 .doOnSuccess(data -> log.debug("FastAPI로부터 응답 수신: {}", data))
                 .doOnError(error -> log.error("FastAPI 오류 발생: {}", error.getMessage(), error));
     }
@@ -1,11 +1,13 @@
 package com.socrates.app.webflux.chat.client.impl;
 
 import com.socrates.app.webflux.chat.client.FastApiReportClient;
+import com.socrates.app.webflux.chat.client.resilience.ResilientLane;
 import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
 import com.socrates.app.webflux.chat.dto.FastApiReportResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -15,20 +17,24 @@ import reactor.core.publisher.Mono;
 @Component
 @RequiredArgsConstructor
 @Primary
+@Profile("!loadtest")
 public class FastApiReportClientImpl implements FastApiReportClient {
 
-    private final WebClient fastapiWebClient;
+    private final WebClient fastapiReportWebClient;
+    private final ResilientLane fastapiReportLane;
 
     @Override
     public Mono<FastApiReportResponse> generateReport(FastApiChatRequest request) {
         log.info("FastAPI Report 클라이언트 호출 - request: {}", request);
 
-        return fastapiWebClient.post()
+        Mono<FastApiReportResponse> response = fastapiReportWebClient.post()
                 .uri("/chat/report")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(FastApiReportResponse.class)
+                .bodyToMono(FastApiReportResponse.class);
+
+        return fastapiReportLane.execute(response)
                 .doOnSuccess(report -> log.info("FastAPI Report 생성 완료"))
                 .doOnError(error -> log.error("FastAPI Report 생성 실패 - error: {}", error.getMessage(), error));
     }
@@ -1,25 +1,35 @@
 package com.socrates.app.webflux.chat.client.impl;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.socrates.app.webflux.chat.client.ChatTitleGeneratorClient;
+import com.socrates.app.webflux.chat.config.OpenAiTitleProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.text.Normalizer;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OpenAiChatTitleGenerator implements ChatTitleGeneratorClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.~…]+$");
+    private static final int FALLBACK_TITLE_LENGTH = 20;
+
+    private final WebClient openAiWebClient;
+    private final OpenAiTitleProperties properties;
+    private final AsyncCache<String, String> titleCache;
 
     @Value("${openai.api.key}")
     private String apiKey;
@@ -29,8 +39,33 @@ public class OpenAiChatTitleGenerator implements ChatTitleGeneratorClient {
 
     private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
 
+    public OpenAiChatTitleGenerator(WebClient openAiWebClient, OpenAiTitleProperties properties) {
+        this.openAiWebClient = openAiWebClient;
+        this.properties = properties;
+        this.titleCache = Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaxSize())
+                .expireAfterWrite(properties.getCache().getTtl())
+                .buildAsync();
+    }
+
+    /**
+     * 같은 첫 메시지의 동시 요청은 진행 중인 하나의 호출을 공유합니다(실패한 호출은 캐시에서 빠집니다).
+     * 지연 예산을 넘겨도 호출은 취소하지 않고 끝까지 진행해 캐시를 채우고, 요청자에게는 대체 제목을 먼저 돌려줍니다.
+     */
     @Override
     public Mono<String> generateTitle(String firstMessage) {
+        return Mono.defer(() -> Mono.fromFuture(
+                        titleCache.get(normalize(firstMessage), (key, executor) -> callOpenAi(firstMessage).toFuture()),
+                        true))
+                .timeout(properties.getLatencyBudget(), Mono.fromSupplier(() -> {
+                    log.warn("채팅방 제목 생성 지연, 첫 메시지 기반 제목 사용 - budget: {}", properties.getLatencyBudget());
+                    return extractTitle(firstMessage);
+                }))
+                .onErrorResume(error -> Mono.just(extractTitle(firstMessage)))
+                .switchIfEmpty(Mono.fromSupplier(() -> extractTitle(firstMessage)));
+    }
+
+    private Mono<String> callOpenAi(String firstMessage) {
         log.info("채팅방 제목 생성 시작 - 첫 메시지: {}", firstMessage);
 
         OpenAiRequest request = OpenAiRequest.builder()
@@ -49,7 +84,7 @@ public class OpenAiChatTitleGenerator implements ChatTitleGeneratorClient {
                 .maxTokens(200)
                 .build();
 
-        return webClientBuilder.build()
+        return openAiWebClient
                 .post()
                 .uri(OPENAI_API_URL)
                 .header("Authorization", "Bearer " + apiKey)
@@ -58,10 +93,42 @@ public class OpenAiChatTitleGenerator implements ChatTitleGeneratorClient {
                 .retrieve()
                 .bodyToMono(OpenAiResponse.class)
                 .map(response -> response.getChoices().get(0).getMessage().getContent().trim())
-                .doOnSuccess(title -> log.info("채팅방 제목 생성 완료: {}", title))
+                .doOnNext(title -> log.info("채팅방 제목 생성 완료: {}", title))
                 .doOnError(error -> log.error("채팅방 제목 생성 실패: {}", error.getMessage()));
     }
 
+    /**
+     * 공백/대소문자/끝 문장부호 차이만 있는 첫 메시지는 같은 캐시 키를 사용합니다.
+     */
+    static String normalize(String message) {
+        String normalized = Normalizer.normalize(message == null ? "" : message, Normalizer.Form.NFC);
+        normalized = WHITESPACE.matcher(normalized.strip()).replaceAll(" ");
+        normalized = TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 첫 문장(또는 첫 줄)을 잘라 제목으로 사용합니다.
+     */
+    static String extractTitle(String message) {
+        String text = message == null ? "" : WHITESPACE.matcher(message.strip()).replaceAll(" ");
+        int end = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '?' || c == '!' || c == '.' || c == '\n') {
+                end = i;
+                break;
+            }
+        }
+        String title = text.substring(0, end).strip();
+        if (title.isEmpty()) {
+            return "새 채팅";
+        }
+        return title.length() <= FALLBACK_TITLE_LENGTH
+                ? title
+                : title.substring(0, FALLBACK_TITLE_LENGTH).strip() + "…";
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
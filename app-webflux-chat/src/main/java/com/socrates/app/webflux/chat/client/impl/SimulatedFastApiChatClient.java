@@ -0,0 +1,127 @@
+package com.socrates.app.webflux.chat.client.impl;
+
+import com.socrates.app.webflux.chat.client.FastApiChatClient;
+import com.socrates.app.webflux.chat.client.resilience.ResilientLane;
+import com.socrates.app.webflux.chat.config.LoadTestProperties;
+import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
+import com.socrates.app.webflux.chat.dto.FastApiChatResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 부하 테스트용 FastAPI 대역입니다. GPU 기반 FastAPI 없이 파드 용량을 산정할 수 있도록
+ * 첫 토큰 지연(로그정규분포), 토큰 속도, 지터, 오류/타임아웃 비율을 설정으로 흉내 냅니다.
+ * 세션 턴 수는 요청의 user_input 길이로 계산하므로 세션별 상태를 저장하지 않습니다.
+ * 실제 클라이언트와 같은 채팅 레인(동시 호출 한도, 서킷 브레이커)을 거칩니다.
+ */
+@Slf4j
+@Component
+@Primary
+@Profile("loadtest")
+public class SimulatedFastApiChatClient implements FastApiChatClient {
+
+    private static final String TOKEN = "토큰 ";
+
+    private final LoadTestProperties.Simulator properties;
+    private final ResilientLane fastapiChatLane;
+
+    public SimulatedFastApiChatClient(LoadTestProperties properties, ResilientLane fastapiChatLane) {
+        this.properties = properties.getSimulator();
+        this.fastapiChatLane = fastapiChatLane;
+        log.info("FastAPI 시뮬레이터 사용 - firstTokenMedian: {}, tokensPerSecond: {}, errorRate: {}, timeoutRate: {}",
+                this.properties.getFirstTokenMedian(), this.properties.getTokensPerSecond(),
+                this.properties.getErrorRate(), this.properties.getTimeoutRate());
+    }
+
+    @Override
+    public Flux<FastApiChatResponse> streamChat(FastApiChatRequest request) {
+        return fastapiChatLane.execute(simulate(request));
+    }
+
+    @Override
+    public Mono<FastApiChatResponse> chat(FastApiChatRequest request) {
+        return fastapiChatLane.execute(simulate(request)
+                .reduce((previous, next) -> response(
+                        previous.getData().getUserFacingMessage() + next.getData().getUserFacingMessage(),
+                        next.getIsCompleted())));
+    }
+
+    private Flux<FastApiChatResponse> simulate(FastApiChatRequest request) {
+        return Flux.defer(() -> {
+            Flux<FastApiChatResponse> failure = injectFailure();
+            if (failure != null) {
+                return failure;
+            }
+
+            boolean completed = isSessionCompleted(request);
+            int chunks = Math.max(1, properties.getResponseTokens() / properties.getTokensPerChunk());
+            String chunk = TOKEN.repeat(properties.getTokensPerChunk());
+
+            return Flux.range(0, chunks)
+                    .concatMap(index -> Mono.delay(index == 0 ? firstTokenDelay() : chunkInterval())
+                            .thenReturn(response(chunk, completed && index == chunks - 1)));
+        });
+    }
+
+    private Flux<FastApiChatResponse> injectFailure() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < properties.getErrorRate()) {
+            return Mono.delay(firstTokenDelay())
+                    .then(Mono.<FastApiChatResponse>error(WebClientResponseException.create(
+                            HttpStatus.SERVICE_UNAVAILABLE.value(), "Simulated failure",
+                            HttpHeaders.EMPTY, new byte[0], null)))
+                    .flux();
+        }
+        if (roll < properties.getErrorRate() + properties.getTimeoutRate()) {
+            return Flux.<FastApiChatResponse>never()
+                    .timeout(properties.getTimeoutAfter(),
+                            Flux.error(new TimeoutException("Simulated upstream timeout")));
+        }
+        return null;
+    }
+
+    private boolean isSessionCompleted(FastApiChatRequest request) {
+        List<String> userInput = request.getData() != null && request.getData().getUser_input() != null
+                ? request.getData().getUser_input()
+                : List.of();
+        // user_input = [user, assistant, ..., 현재 메시지]
+        int turn = userInput.size() / 2 + 1;
+        return turn >= properties.getCompleteAfterTurns();
+    }
+
+    private Duration firstTokenDelay() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        double millis = properties.getFirstTokenMedian().toMillis() * Math.exp(properties.getFirstTokenSigma() * gaussian);
+        return Duration.ofMillis((long) millis);
+    }
+
+    private Duration chunkInterval() {
+        double base = 1000.0 * properties.getTokensPerChunk() / properties.getTokensPerSecond();
+        double jitter = properties.getJitter() * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        return Duration.ofMillis((long) Math.max(0, base * (1 + jitter)));
+    }
+
+    private FastApiChatResponse response(String content, boolean completed) {
+        return FastApiChatResponse.builder()
+                .success(true)
+                .isCompleted(completed)
+                .data(FastApiChatResponse.ResponseData.builder()
+                        .userFacingMessage(content)
+                        .isStuck(false)
+                        .nextAction("")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.socrates.app.webflux.chat.client.limit;
+
+import com.socrates.app.webflux.chat.config.FastApiProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 대화형 채팅 레인의 FastAPI 응답 지연을 EWMA로 추적합니다.
+ * 지연이 예산을 넘으면 리포트 레인이 동시 호출 수를 줄여 채팅 트래픽에 자리를 내줍니다.
+ */
+@Slf4j
+@Component
+public class ChatLaneLatencyTracker {
+
+    private static final double ALPHA = 0.2;
+
+    private final FastApiProperties.Shedding properties;
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+
+    private double ewmaMillis;
+    private long lastSampleNanos;
+    private boolean overBudget;
+
+    public ChatLaneLatencyTracker(FastApiProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getShedding();
+        Gauge.builder("fastapi.lane.chat.latency.ewma", this, ChatLaneLatencyTracker::ewmaMillis)
+                .description("채팅 레인 FastAPI 응답 지연 EWMA (ms)")
+                .register(meterRegistry);
+    }
+
+    public void record(Duration latency) {
+        boolean recovered;
+        synchronized (this) {
+            long millis = latency.toMillis();
+            ewmaMillis = lastSampleNanos == 0 ? millis : ALPHA * millis + (1 - ALPHA) * ewmaMillis;
+            lastSampleNanos = System.nanoTime();
+
+            boolean wasOverBudget = overBudget;
+            overBudget = ewmaMillis > properties.getChatLatencyBudget().toMillis();
+            recovered = wasOverBudget && !overBudget;
+            if (!wasOverBudget && overBudget) {
+                log.warn("채팅 레인 지연이 예산을 초과하여 리포트 레인을 축소합니다 - ewma: {}ms", (long) ewmaMillis);
+            }
+        }
+
+        if (recovered) {
+            log.info("채팅 레인 지연이 예산 이내로 회복되었습니다 - ewma: {}ms", (long) ewmaMillis);
+            recoveryListeners.forEach(Runnable::run);
+        }
+    }
+
+    public synchronized boolean isOverBudget() {
+        return overBudget
+                && System.nanoTime() - lastSampleNanos < properties.getSampleStaleAfter().toNanos();
+    }
+
+    public void onRecovered(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    private synchronized double ewmaMillis() {
+        return ewmaMillis;
+    }
+}
@@ -0,0 +1,19 @@
+package com.socrates.app.webflux.chat.client.limit;
+
+/**
+ * {@link ConcurrencyLimiter}가 호출 시점마다 읽는 동시 호출 한도입니다.
+ * 고정 한도는 람다로, 지연 기반 한도는 {@link #onSample}로 샘플을 받아 갱신합니다.
+ */
+@FunctionalInterface
+public interface ConcurrencyLimit {
+
+    int getLimit();
+
+    /**
+     * @param rttNanos 호출 권한을 얻은 뒤 첫 응답(스트림은 첫 토큰)까지 걸린 시간
+     * @param inFlight 샘플을 만든 호출이 시작될 때의 진행 중 호출 수
+     * @param dropped  타임아웃이나 서버 오류처럼 과부하로 볼 수 있는 실패였는지 여부
+     */
+    default void onSample(long rttNanos, int inFlight, boolean dropped) {
+    }
+}
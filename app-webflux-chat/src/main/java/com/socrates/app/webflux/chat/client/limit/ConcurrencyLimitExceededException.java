@@ -0,0 +1,17 @@
+package com.socrates.app.webflux.chat.client.limit;
+
+import lombok.Getter;
+
+/**
+ * 레인의 대기열이 가득 찼거나 대기 시간이 초과되어 FastAPI 호출이 거절되었을 때 발생합니다.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String lane;
+
+    public ConcurrencyLimitExceededException(String lane, String reason) {
+        super("FastAPI " + lane + " 레인 요청 거절: " + reason);
+        this.lane = lane;
+    }
+}
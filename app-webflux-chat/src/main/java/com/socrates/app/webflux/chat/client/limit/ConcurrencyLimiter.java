@@ -0,0 +1,232 @@
+package com.socrates.app.webflux.chat.client.limit;
+
+import com.socrates.app.webflux.chat.client.resilience.FastApiFailures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 레인 단위 동시 호출 한도와 FIFO 대기열입니다.
+ * 한도를 넘은 요청은 대기열에서 기다리고, 대기열이 가득 차거나 대기 시간이 지나면 거절됩니다.
+ * 한도는 호출 시점마다 다시 읽으므로 부하 상황에 따라 바꿀 수 있고,
+ * 각 호출의 RTT를 {@link ConcurrencyLimit#onSample}로 넘겨 적응형 한도가 학습하도록 합니다.
+ */
+public class ConcurrencyLimiter {
+
+    private final String lane;
+    private final ConcurrencyLimit limit;
+    private final int maxQueue;
+    private final Duration queueTimeout;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private int inFlight;
+
+    private final Timer queueWait;
+    private final Counter queueFullRejections;
+    private final Counter queueTimeoutRejections;
+
+    public ConcurrencyLimiter(String lane, ConcurrencyLimit limit, int maxQueue, Duration queueTimeout,
+                              MeterRegistry meterRegistry) {
+        this.lane = lane;
+        this.limit = limit;
+        this.maxQueue = maxQueue;
+        this.queueTimeout = queueTimeout;
+
+        Gauge.builder("fastapi.lane.in.flight", this, ConcurrencyLimiter::inFlight)
+                .description("레인에서 진행 중인 FastAPI 호출 수")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        Gauge.builder("fastapi.lane.queue.depth", this, ConcurrencyLimiter::queued)
+                .description("레인 대기열에서 기다리는 요청 수")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        Gauge.builder("fastapi.lane.limit", this, ConcurrencyLimiter::currentLimit)
+                .description("레인의 현재 동시 호출 한도")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("fastapi.lane.queue.wait")
+                .description("레인 대기열에서 호출 권한을 얻기까지 걸린 시간")
+                .tag("lane", lane)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("fastapi.lane.rejected")
+                .tag("lane", lane)
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.queueTimeoutRejections = Counter.builder("fastapi.lane.rejected")
+                .tag("lane", lane)
+                .tag("reason", "queue_timeout")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> limit(Mono<T> source) {
+        return Mono.usingWhen(acquire(), permit -> sampled(permit, source),
+                ConcurrencyLimiter::release,
+                (permit, error) -> release(permit),
+                ConcurrencyLimiter::release);
+    }
+
+    /**
+     * 스트림이 끝나거나 취소될 때까지 호출 권한을 유지합니다.
+     */
+    public <T> Flux<T> limit(Flux<T> source) {
+        return Flux.usingWhen(acquire(), permit -> sampled(permit, source),
+                ConcurrencyLimiter::release,
+                (permit, error) -> release(permit),
+                ConcurrencyLimiter::release);
+    }
+
+    /**
+     * Mono는 완료까지, Flux는 첫 요소까지의 시간을 RTT 샘플로 기록합니다.
+     */
+    private <T> Mono<T> sampled(Permit permit, Mono<T> source) {
+        return source
+                .doOnSuccess(value -> permit.sample(false))
+                .doOnError(error -> permit.sample(FastApiFailures.isUpstreamFailure(error)));
+    }
+
+    private <T> Flux<T> sampled(Permit permit, Flux<T> source) {
+        return source
+                .doOnNext(value -> permit.sample(false))
+                .doOnComplete(() -> permit.sample(false))
+                .doOnError(error -> permit.sample(FastApiFailures.isUpstreamFailure(error)));
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+
+    public int currentLimit() {
+        return Math.max(1, limit.getLimit());
+    }
+
+    /**
+     * 한도가 늘어났을 때 대기 중인 요청을 깨웁니다.
+     */
+    public void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            drainLocked(granted);
+        }
+        grant(granted);
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Waiter waiter;
+            synchronized (this) {
+                if (waiters.isEmpty() && inFlight < currentLimit()) {
+                    inFlight++;
+                    queueWait.record(0, TimeUnit.NANOSECONDS);
+                    return Mono.just(new Permit(inFlight));
+                }
+                if (waiters.size() >= maxQueue) {
+                    queueFullRejections.increment();
+                    return Mono.error(new ConcurrencyLimitExceededException(lane, "대기열 포화"));
+                }
+                waiter = new Waiter();
+                waiters.addLast(waiter);
+            }
+
+            return waiter.sink.asMono()
+                    .timeout(queueTimeout)
+                    .doOnNext(permit -> queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .onErrorMap(TimeoutException.class, error -> {
+                        queueTimeoutRejections.increment();
+                        return new ConcurrencyLimitExceededException(lane, "대기 시간 초과");
+                    })
+                    .doOnError(error -> abandon(waiter))
+                    .doOnCancel(() -> abandon(waiter));
+        });
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit orphan;
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            orphan = waiter.permit;
+        }
+        // 권한을 넘겨받은 직후 타임아웃/취소된 경우 반납
+        if (orphan != null) {
+            orphan.release();
+        }
+    }
+
+    private void onRelease() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            drainLocked(granted);
+        }
+        grant(granted);
+    }
+
+    private void drainLocked(List<Waiter> granted) {
+        while (!waiters.isEmpty() && inFlight < currentLimit()) {
+            Waiter waiter = waiters.pollFirst();
+            inFlight++;
+            waiter.permit = new Permit(inFlight);
+            granted.add(waiter);
+        }
+    }
+
+    private static void grant(List<Waiter> granted) {
+        // 구독자 코드가 락 안에서 실행되지 않도록 락 밖에서 전달
+        granted.forEach(waiter -> waiter.sink.tryEmitValue(waiter.permit));
+    }
+
+    private static Mono<Void> release(Permit permit) {
+        return Mono.fromRunnable(permit::release);
+    }
+
+    private static final class Waiter {
+        private final Sinks.One<Permit> sink = Sinks.one();
+        private Permit permit;
+    }
+
+    private final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean sampled = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        void sample(boolean dropped) {
+            if (sampled.compareAndSet(false, true)) {
+                limit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+                // 한도가 늘었으면 대기 중인 요청을 바로 깨움
+                drain();
+            }
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                onRelease();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.socrates.app.webflux.chat.client.limit;
+
+import com.socrates.app.webflux.chat.config.FastApiProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 최소 RTT 대비 현재 RTT의 비율(gradient)로 동시 호출 한도를 조절합니다.
+ * <ul>
+ *     <li>RTT가 최소 RTT에 가까우면 sqrt(limit)만큼 여유를 두고 한도를 늘립니다.</li>
+ *     <li>RTT가 늘어나면(큐잉 발생) 비율만큼 한도를 줄입니다.</li>
+ *     <li>과부하성 실패는 backoffRatio를 곱해 곱셈식으로 줄입니다 (AIMD).</li>
+ * </ul>
+ * 최소 RTT는 주기적으로 초기화해 FastAPI 쪽 기준 지연이 바뀌어도 다시 측정합니다.
+ */
+@Slf4j
+public class GradientLimit implements ConcurrencyLimit {
+
+    private final FastApiProperties.AdaptiveLimit properties;
+    private final int maxLimit;
+
+    private double estimatedLimit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long minRttResetAtNanos;
+
+    public GradientLimit(FastApiProperties.AdaptiveLimit properties, int maxLimit,
+                         String lane, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = clamp(properties.getInitialLimit());
+        this.minRttResetAtNanos = System.nanoTime() + properties.getMinRttResetInterval().toNanos();
+
+        Gauge.builder("fastapi.lane.adaptive.min.rtt", this, GradientLimit::minRttMillis)
+                .description("적응형 한도가 기준으로 삼는 최소 RTT (ms)")
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        long now = System.nanoTime();
+        if (now - minRttResetAtNanos > 0) {
+            minRttNanos = Long.MAX_VALUE;
+            minRttResetAtNanos = now + properties.getMinRttResetInterval().toNanos();
+        }
+
+        double limit = estimatedLimit;
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * properties.getBackoffRatio();
+        } else {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+            double gradient = Math.max(0.5, Math.min(1.0, properties.getTolerance() * minRttNanos / rttNanos));
+            newLimit = limit * gradient + Math.sqrt(limit);
+
+            // 한도의 절반도 쓰지 않는 상태에서는 한도를 늘릴 근거가 없음
+            if (inFlight < limit / 2) {
+                newLimit = Math.min(newLimit, limit);
+            }
+        }
+
+        double smoothing = properties.getSmoothing();
+        estimatedLimit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+
+        if ((int) estimatedLimit != (int) limit) {
+            log.debug("FastAPI 적응형 한도 변경 - {} -> {}, rtt: {}ms, minRtt: {}ms, dropped: {}",
+                    (int) limit, (int) estimatedLimit, rttNanos / 1_000_000, minRttMillis(), dropped);
+        }
+    }
+
+    private double clamp(double limit) {
+        return Math.max(properties.getMinLimit(), Math.min(maxLimit, limit));
+    }
+
+    private synchronized double minRttMillis() {
+        return minRttNanos == Long.MAX_VALUE ? 0 : minRttNanos / 1_000_000.0;
+    }
+}
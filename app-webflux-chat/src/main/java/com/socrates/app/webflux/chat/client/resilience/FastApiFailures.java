@@ -0,0 +1,51 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * FastAPI 호출 실패를 서킷 브레이커 집계 대상과 재시도 대상으로 분류합니다.
+ */
+public final class FastApiFailures {
+
+    private FastApiFailures() {
+    }
+
+    /**
+     * 서버 측 장애로 볼 수 있는 실패 (4xx 같은 요청 오류는 제외)
+     */
+    public static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException
+                || error instanceof TimeoutException;
+    }
+
+    /**
+     * 요청이 FastAPI에서 처리되지 않았다고 확신할 수 있어 다시 보내도 안전한 실패.
+     * <ul>
+     *     <li>연결 단계 실패(연결 거부, 연결 타임아웃, 커넥션 풀 획득 대기 초과): 요청을 보내기 전에 실패</li>
+     *     <li>503: 서버가 요청을 받지 않고 거절</li>
+     * </ul>
+     * 504는 업스트림이 이미 처리 중일 수 있고, 502는 게이트웨이가 요청을 전달한 뒤 실패했을 수 있어
+     * 응답만으로는 처리 여부를 알 수 없으므로 재시도하지 않습니다.
+     */
+    public static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().value() == 503;
+        }
+        if (error instanceof WebClientRequestException) {
+            Throwable cause = error.getCause();
+            return cause instanceof ConnectException
+                    || cause instanceof ConnectTimeoutException
+                    // 커넥션 풀 획득 대기 시간 초과 (PoolAcquireTimeoutException)
+                    || cause instanceof TimeoutException;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimiter;
+import com.socrates.app.webflux.chat.config.FastApiProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * FastAPI 레인 호출에 서킷 브레이커, 동시 호출 한도, 재시도 예산을 순서대로 적용합니다.
+ * 서킷이 열려 있으면 레인 대기열에 들어가지 않고 즉시 실패합니다.
+ * 재시도는 호출 한도 바깥에서 감싸므로, 시도마다 호출 권한을 새로 얻고 RTT 샘플도 시도별로 기록됩니다.
+ */
+@Slf4j
+public class ResilientLane {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrencyLimiter limiter;
+    private final RetryBudget retryBudget;
+    private final FastApiProperties.Retry retryProperties;
+    private final Duration retryAfter;
+
+    private final Counter retries;
+    private final Counter budgetExhausted;
+
+    public ResilientLane(String name, CircuitBreaker circuitBreaker, ConcurrencyLimiter limiter,
+                         FastApiProperties.Resilience properties, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.limiter = limiter;
+        this.retryProperties = properties.getRetry();
+        this.retryBudget = new RetryBudget(retryProperties.getBudgetRatio(), retryProperties.getMinRetriesPerSecond());
+        this.retryAfter = properties.getCircuitBreaker().getWaitDurationInOpenState();
+        this.retries = Counter.builder("fastapi.lane.retries")
+                .description("재시도 예산 안에서 수행된 FastAPI 재시도 수")
+                .tag("lane", name)
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("fastapi.lane.retry.budget.exhausted")
+                .description("재시도 예산이 부족해 포기한 재시도 수")
+                .tag("lane", name)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.defer(() -> {
+                    retryBudget.onRequest();
+                    return limiter.limit(call).retryWhen(retrySpec(() -> true));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, this::unavailable);
+    }
+
+    /**
+     * 스트림은 첫 응답을 받기 전에 실패한 경우에만 재시도합니다 (이미 전달된 조각이 중복되지 않도록).
+     */
+    public <T> Flux<T> execute(Flux<T> call) {
+        return Flux.defer(() -> {
+                    retryBudget.onRequest();
+                    AtomicBoolean received = new AtomicBoolean();
+                    Flux<T> attempt = call.doOnNext(item -> received.set(true));
+                    return limiter.limit(attempt).retryWhen(retrySpec(() -> !received.get()));
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, this::unavailable);
+    }
+
+    private Retry retrySpec(BooleanSupplier safeToRetry) {
+        return Retry.backoff(retryProperties.getMaxAttempts(), retryProperties.getBackoff())
+                .filter(error -> FastApiFailures.isRetryable(error)
+                        && safeToRetry.getAsBoolean()
+                        && withdraw())
+                .doBeforeRetry(signal -> {
+                    retries.increment();
+                    log.warn("FastAPI {} 레인 재시도 - attempt: {}, error: {}",
+                            name, signal.totalRetries() + 1, signal.failure().getMessage());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private boolean withdraw() {
+        if (retryBudget.tryWithdraw()) {
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    private UpstreamUnavailableException unavailable(CallNotPermittedException error) {
+        log.warn("FastAPI {} 레인 서킷 오픈으로 호출 차단", name);
+        return new UpstreamUnavailableException(name, retryAfter, error);
+    }
+}
@@ -0,0 +1,50 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+/**
+ * 요청마다 일정 비율의 재시도 토큰을 적립하고 재시도 때 하나씩 사용합니다.
+ * 장애 중 재시도가 트래픽을 증폭시키지 않도록 전체 재시도량을 요청량의 일정 비율로 묶어 둡니다.
+ */
+public class RetryBudget {
+
+    private static final int RESERVE_SECONDS = 10;
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    public RetryBudget(double ratio, int minRetriesPerSecond) {
+        this.ratio = ratio;
+        this.minPerSecond = minRetriesPerSecond;
+        this.capacity = Math.max(1, minRetriesPerSecond * RESERVE_SECONDS);
+        this.tokens = capacity;
+    }
+
+    public synchronized void onRequest() {
+        refill();
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        tokens = Math.min(capacity, tokens + elapsedSeconds * minPerSecond);
+    }
+}
@@ -0,0 +1,21 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 서킷이 열려 있어 FastAPI를 호출하지 않고 즉시 실패했을 때 발생합니다.
+ */
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final String lane;
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String lane, Duration retryAfter, Throwable cause) {
+        super("FastAPI " + lane + " 레인 서킷 오픈", cause);
+        this.lane = lane;
+        this.retryAfter = retryAfter;
+    }
+}
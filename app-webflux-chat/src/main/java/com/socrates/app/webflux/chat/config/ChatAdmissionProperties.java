@@ -0,0 +1,50 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.admission")
+public class ChatAdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 인스턴스에서 동시에 열어 둘 수 있는 채팅 스트림 수
+     */
+    private int maxConcurrentStreams = 500;
+
+    /**
+     * 사용자 한 명이 동시에 열어 둘 수 있는 채팅 스트림 수
+     */
+    private int maxStreamsPerUser = 2;
+
+    /**
+     * 대화 중인 세션에만 추가로 허용하는 스트림 수 (전역 한도 초과분)
+     */
+    private int priorityReserve = 50;
+
+    /**
+     * 마지막 턴 이후 이 시간 안에 들어온 요청을 대화 중인 세션으로 봅니다.
+     */
+    private Duration activeSessionWindow = Duration.ofMinutes(10);
+
+    private Duration retryAfter = Duration.ofSeconds(3);
+
+    private RejectMode rejectMode = RejectMode.STATUS;
+
+    public enum RejectMode {
+        /**
+         * 429 Too Many Requests + Retry-After 헤더
+         */
+        STATUS,
+        /**
+         * 200 SSE 스트림으로 busy 이벤트 하나를 보내고 종료
+         */
+        EVENT
+    }
+}
@@ -0,0 +1,45 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.context")
+public class ChatContextProperties {
+
+    /**
+     * 최근 N턴 + 토큰 예산 윈도우를 적용할지 여부. 꺼져 있으면 전체 히스토리를 그대로 전달합니다.
+     */
+    private boolean enabled = false;
+
+    /**
+     * FastAPI에 전달할 최근 턴(user/assistant 쌍) 최대 개수
+     */
+    private int maxTurns = 20;
+
+    /**
+     * 히스토리 + 현재 메시지의 추정 토큰 예산
+     */
+    private int maxTokens = 6000;
+
+    private Summary summary = new Summary();
+
+    @Getter
+    @Setter
+    public static class Summary {
+
+        /**
+         * 윈도우 밖으로 밀려난 턴을 질문 목록 요약으로 대체할지 여부
+         */
+        private boolean enabled = false;
+
+        private int maxChars = 800;
+
+        /**
+         * 요약에 남기는 턴별 질문의 최대 길이
+         */
+        private int questionChars = 80;
+    }
+}
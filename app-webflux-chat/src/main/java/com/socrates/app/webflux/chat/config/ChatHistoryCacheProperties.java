@@ -0,0 +1,25 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.history-cache")
+public class ChatHistoryCacheProperties {
+
+    /**
+     * false이면 매 턴마다 MongoDB에서 히스토리를 조회합니다.
+     */
+    private boolean enabled = false;
+
+    private String keyPrefix = "chat:history:";
+
+    /**
+     * 마지막 append 이후 캐시가 유지되는 시간
+     */
+    private Duration ttl = Duration.ofHours(6);
+}
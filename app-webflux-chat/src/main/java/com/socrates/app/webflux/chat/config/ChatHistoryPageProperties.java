@@ -0,0 +1,26 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.history-page")
+public class ChatHistoryPageProperties {
+
+    /**
+     * cursor만 있고 limit 파라미터가 없을 때 한 페이지에 반환할 메시지 수
+     */
+    private int defaultLimit = 200;
+
+    /**
+     * 요청할 수 있는 최대 limit
+     */
+    private int maxLimit = 500;
+
+    /**
+     * preview 모드에서 userMessage를 자르는 길이
+     */
+    private int previewChars = 120;
+}
@@ -0,0 +1,53 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.persistence")
+public class ChatPersistenceProperties {
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    private Indexes indexes = new Indexes();
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /**
+         * true이면 새 메시지를 메모리 큐에 쌓았다가 bulk write로 반영합니다. 큐에 있는 동안의 상태 변경은 문서에 합쳐집니다.
+         */
+        private boolean enabled = false;
+
+        private int queueCapacity = 10_000;
+
+        /**
+         * 큐에 이 개수 이상 쌓이면 주기를 기다리지 않고 flush
+         */
+        private int batchSize = 500;
+
+        private Duration flushInterval = Duration.ofMillis(50);
+
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Indexes {
+
+        /**
+         * 기동 완료 후 조회 패턴에 맞는 인덱스를 비동기로 생성합니다.
+         */
+        private boolean bootstrap = true;
+
+        /**
+         * 인덱스 생성 후 저장소 쿼리 형태마다 explain을 실행해 COLLSCAN이면 경고합니다.
+         */
+        private boolean verifyQueryShapes = true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.rate-limit")
+public class ChatRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * LOCAL이면 인스턴스별 버킷을 사용합니다. REDIS이면 인스턴스 간에 버킷을 공유하고,
+     * Redis 호출이 실패하면 redisFailureCooldown 동안 로컬 버킷으로 전환합니다.
+     */
+    private Backend backend = Backend.LOCAL;
+
+    /**
+     * Redis 실패 후 다시 Redis를 시도하기까지 로컬 버킷을 사용하는 시간.
+     * 장애 중에 요청마다 Redis 타임아웃을 기다리지 않게 합니다.
+     */
+    private Duration redisFailureCooldown = Duration.ofSeconds(10);
+
+    private String keyPrefix = "chat:ratelimit:";
+
+    /**
+     * 로컬 버킷을 유지할 최대 키 수
+     */
+    private int localMaxKeys = 100_000;
+
+    private Duration localExpireAfterAccess = Duration.ofMinutes(10);
+
+    /**
+     * 식별자를 읽기 위해 메모리에 모을 수 있는 요청 바디 최대 크기 (WebFlux 코덱 기본 한도와 같음). 넘으면 413으로 거절합니다.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    /**
+     * 엔드포인트 이름별 제한 (path가 일치하는 POST 요청에 적용)
+     */
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public enum Backend {
+        REDIS,
+        LOCAL
+    }
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        private String path;
+
+        /**
+         * userId(없으면 클라이언트 IP) 단위 버킷
+         */
+        private Bucket user;
+
+        /**
+         * sessionId 단위 버킷 (선택)
+         */
+        private Bucket session;
+    }
+
+    @Getter
+    @Setter
+    public static class Bucket {
+
+        /**
+         * 버킷 크기 (연속으로 허용하는 최대 요청 수)
+         */
+        private int capacity;
+
+        /**
+         * 분당 다시 채워지는 토큰 수
+         */
+        private double refillPerMinute;
+
+        public double refillPerMillis() {
+            return refillPerMinute / 60_000.0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.report")
+public class ChatReportProperties {
+
+    private SingleFlight singleFlight = new SingleFlight();
+
+    private PreGeneration preGeneration = new PreGeneration();
+
+    @Getter
+    @Setter
+    public static class SingleFlight {
+
+        /**
+         * true이면 Redis 락으로 여러 인스턴스 사이에서도 세션당 리포트 생성을 하나로 제한합니다.
+         */
+        private boolean distributed = false;
+
+        private String keyPrefix = "chat:report:lock:";
+
+        private Duration lockTtl = Duration.ofMinutes(2);
+
+        /**
+         * 다른 인스턴스가 생성 중일 때 리포트 완료 여부를 확인하는 주기
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * 다른 인스턴스의 생성 완료를 기다리는 최대 시간. 초과하면 직접 생성합니다.
+         */
+        private Duration waitTimeout = Duration.ofSeconds(90);
+    }
+
+    @Getter
+    @Setter
+    public static class PreGeneration {
+
+        /**
+         * chat_end 시점에 리포트 생성을 백그라운드 작업으로 등록할지 여부
+         */
+        private boolean enabled = true;
+
+        private int queueCapacity = 1000;
+
+        /**
+         * 동시에 생성하는 리포트 수
+         */
+        private int concurrency = 4;
+
+        /**
+         * FAILED 리포트 재시도 횟수
+         */
+        private int maxRetries = 3;
+
+        private Duration retryBackoff = Duration.ofSeconds(2);
+
+        /**
+         * /report/{sessionId}/events 구독자가 리포트를 기다리는 최대 시간
+         */
+        private Duration subscribeTimeout = Duration.ofMinutes(2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.stream")
+public class ChatStreamProperties {
+
+    /**
+     * UPSTREAM: FastAPI /chat/stream 청크를 그대로 SSE로 전달
+     * BUFFERED: FastAPI /chat 전체 응답을 받은 뒤 단어 단위로 분할하여 전달
+     */
+    private StreamMode mode = StreamMode.UPSTREAM;
+
+    /**
+     * 스트리밍 중 부분 응답(assistantMessage)을 저장하는 최대 시간 간격
+     */
+    private Duration checkpointInterval = Duration.ofSeconds(1);
+
+    /**
+     * 마지막 저장 이후 이 글자 수만큼 누적되면 부분 응답을 저장
+     */
+    private int checkpointChars = 200;
+
+    private Coalesce coalesce = new Coalesce();
+
+    private Resume resume = new Resume();
+
+    @Getter
+    @Setter
+    public static class Coalesce {
+
+        private boolean enabled = true;
+
+        /**
+         * 누적된 message 청크가 이 바이트 수(UTF-8)에 도달하면 즉시 전송
+         */
+        private int maxBytes = 64;
+
+        /**
+         * 첫 청크가 버퍼에 들어온 뒤 최대 대기 시간
+         */
+        private Duration maxLatency = Duration.ofMillis(30);
+
+        /**
+         * 요청별로 지정할 수 있는 바이트 예산 상한
+         */
+        private int maxBytesLimit = 1024;
+
+        /**
+         * 요청별로 지정할 수 있는 최대 대기 시간 상한
+         */
+        private Duration maxLatencyLimit = Duration.ofMillis(200);
+    }
+
+    @Getter
+    @Setter
+    public static class Resume {
+
+        /**
+         * 이벤트 id 부여와 Last-Event-ID 기반 재개 사용 여부
+         */
+        private boolean enabled = true;
+
+        /**
+         * 모든 구독자가 끊긴 뒤 재연결을 기다리며 응답 생성을 유지하는 시간 (0이면 즉시 중단)
+         */
+        private Duration detachGrace = Duration.ofSeconds(15);
+
+        /**
+         * 응답이 끝난 뒤 재개용 버퍼를 메모리에 유지하는 시간
+         */
+        private Duration retention = Duration.ofMinutes(5);
+
+        /**
+         * 메모리에 유지할 메시지 버퍼 최대 개수 (초과 시 오래된 버퍼부터 제거되고, 저장된 메시지로 재개)
+         */
+        private long maxMessages = 10_000;
+
+        /**
+         * 버퍼가 없고 메시지가 아직 생성 중일 때(다른 인스턴스 등) 저장된 부분 응답을 다시 읽는 간격
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * 저장된 메시지를 폴링하며 기다리는 최대 시간
+         */
+        private Duration pollTimeout = Duration.ofMinutes(2);
+    }
+
+    public enum StreamMode {
+        UPSTREAM,
+        BUFFERED
+    }
+}
@@ -0,0 +1,68 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.turn-queue")
+public class ChatTurnQueueProperties {
+
+    /**
+     * 같은 세션의 채팅 턴을 한 번에 하나씩만 처리할지 여부
+     */
+    private boolean enabled = true;
+
+    private Mode mode = Mode.QUEUE;
+
+    /**
+     * 진행 중인 턴 뒤에서 기다릴 수 있는 세션별 최대 턴 수 (QUEUE, COALESCE)
+     */
+    private int maxQueued = 2;
+
+    /**
+     * 앞선 턴이 끝나기를 기다리는 최대 시간. 초과하면 거절합니다.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(30);
+
+    private Distributed distributed = new Distributed();
+
+    @Getter
+    @Setter
+    public static class Distributed {
+
+        /**
+         * true이면 인스턴스 내 순서 보장에 더해 Redis 락으로 레플리카 간에도 세션 턴을 직렬화합니다.
+         */
+        private boolean enabled = false;
+
+        private String keyPrefix = "chat:turn:";
+
+        /**
+         * 락 만료 시간. 턴이 진행되는 동안 lockTtl/3마다 연장되므로,
+         * 락을 가진 인스턴스가 죽었을 때 다른 레플리카가 기다리게 되는 최대 시간입니다.
+         */
+        private Duration lockTtl = Duration.ofMinutes(2);
+
+        private Duration retryInterval = Duration.ofMillis(200);
+    }
+
+    public enum Mode {
+        /**
+         * 진행 중인 턴이 끝날 때까지 기다렸다가 순서대로 처리
+         */
+        QUEUE,
+        /**
+         * 진행 중인 턴이 있으면 바로 거절
+         */
+        REJECT,
+        /**
+         * 진행 중이거나 대기 중인 턴과 requestId가 같은 요청(클라이언트 재전송)은 그 턴의 응답 스트림을 함께 받고,
+         * requestId가 없거나 다른 요청은 QUEUE와 같이 처리
+         */
+        COALESCE
+    }
+}
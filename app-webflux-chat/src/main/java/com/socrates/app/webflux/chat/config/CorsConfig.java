@@ -2,6 +2,8 @@ package com.socrates.app.webflux.chat.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -11,7 +13,9 @@ import java.util.List;
 @Configuration
 public class CorsConfig {
 
+    // 요청 제한(429) 응답에도 CORS 헤더가 붙도록 다른 WebFilter보다 먼저 실행
     @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     public CorsWebFilter corsWebFilter() {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOriginPatterns(List.of(
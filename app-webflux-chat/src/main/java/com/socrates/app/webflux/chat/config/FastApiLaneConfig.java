@@ -0,0 +1,111 @@
+package com.socrates.app.webflux.chat.config;
+
+import com.socrates.app.webflux.chat.client.limit.ChatLaneLatencyTracker;
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimit;
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimitExceededException;
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimiter;
+import com.socrates.app.webflux.chat.client.limit.GradientLimit;
+import com.socrates.app.webflux.chat.client.resilience.FastApiFailures;
+import com.socrates.app.webflux.chat.client.resilience.ResilientLane;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * FastAPI 호출을 대화형(chat)과 리포트(report) 레인으로 나누어
+ * 동시 호출 한도, 서킷 브레이커, 재시도 예산을 따로 둡니다.
+ */
+@Configuration
+public class FastApiLaneConfig {
+
+    private static final Duration SLOW_CALL_MARGIN = Duration.ofSeconds(1);
+
+    /**
+     * FastAPI 지연이 부하에 따라 크게 변하므로 기본적으로 적응형 한도를 사용합니다.
+     */
+    @Bean
+    public ConcurrencyLimiter fastapiChatLimiter(FastApiProperties properties, MeterRegistry meterRegistry) {
+        FastApiProperties.Lane lane = properties.getChat();
+        ConcurrencyLimit limit = properties.getAdaptiveLimit().isEnabled()
+                ? new GradientLimit(properties.getAdaptiveLimit(), lane.getMaxConcurrency(), "chat", meterRegistry)
+                : lane::getMaxConcurrency;
+        return new ConcurrencyLimiter("chat", limit,
+                lane.getMaxQueue(), lane.getQueueTimeout(), meterRegistry);
+    }
+
+    /**
+     * 채팅 레인 지연이 예산을 넘는 동안에는 리포트 요청을 대기열에 쌓고, 대기열이 차면 먼저 거절합니다.
+     */
+    @Bean
+    public ConcurrencyLimiter fastapiReportLimiter(FastApiProperties properties,
+                                                   ChatLaneLatencyTracker chatLaneLatencyTracker,
+                                                   MeterRegistry meterRegistry) {
+        FastApiProperties.Lane lane = properties.getReport();
+        FastApiProperties.Shedding shedding = properties.getShedding();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("report",
+                () -> chatLaneLatencyTracker.isOverBudget()
+                        ? Math.min(shedding.getReportDegradedConcurrency(), lane.getMaxConcurrency())
+                        : lane.getMaxConcurrency(),
+                lane.getMaxQueue(), lane.getQueueTimeout(), meterRegistry);
+        chatLaneLatencyTracker.onRecovered(limiter::drain);
+        return limiter;
+    }
+
+    @Bean
+    public CircuitBreakerRegistry fastapiCircuitBreakerRegistry(FastApiProperties properties,
+                                                                MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(circuitBreakerConfig(properties, properties.getChat()));
+        // resilience4j.circuitbreaker.state / calls / failure.rate 등
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public ResilientLane fastapiChatLane(CircuitBreakerRegistry fastapiCircuitBreakerRegistry,
+                                         ConcurrencyLimiter fastapiChatLimiter,
+                                         FastApiProperties properties,
+                                         MeterRegistry meterRegistry) {
+        return new ResilientLane("chat", fastapiCircuitBreakerRegistry.circuitBreaker("fastapi-chat",
+                circuitBreakerConfig(properties, properties.getChat())),
+                fastapiChatLimiter, properties.getResilience(), meterRegistry);
+    }
+
+    @Bean
+    public ResilientLane fastapiReportLane(CircuitBreakerRegistry fastapiCircuitBreakerRegistry,
+                                           ConcurrencyLimiter fastapiReportLimiter,
+                                           FastApiProperties properties,
+                                           MeterRegistry meterRegistry) {
+        return new ResilientLane("report", fastapiCircuitBreakerRegistry.circuitBreaker("fastapi-report",
+                circuitBreakerConfig(properties, properties.getReport())),
+                fastapiReportLimiter, properties.getResilience(), meterRegistry);
+    }
+
+    /**
+     * 느린 호출 기준이 지정되지 않으면 레인 응답 타임아웃보다 길게 잡아, 느린 호출로 서킷이 열리지 않게 합니다.
+     */
+    private static CircuitBreakerConfig circuitBreakerConfig(FastApiProperties properties, FastApiProperties.Lane lane) {
+        FastApiProperties.CircuitBreaker circuitBreaker = properties.getResilience().getCircuitBreaker();
+        Duration slowCallDurationThreshold = circuitBreaker.getSlowCallDurationThreshold() != null
+                ? circuitBreaker.getSlowCallDurationThreshold()
+                : properties.responseTimeout(lane).plus(SLOW_CALL_MARGIN);
+
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+                .slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(circuitBreaker.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(circuitBreaker.getPermittedNumberOfCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(FastApiFailures::isUpstreamFailure)
+                // 로컬 대기열 거절은 FastAPI 장애가 아니므로 집계하지 않음
+                .ignoreExceptions(ConcurrencyLimitExceededException.class)
+                .build();
+    }
+}
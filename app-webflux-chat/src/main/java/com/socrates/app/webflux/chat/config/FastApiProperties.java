@@ -0,0 +1,230 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fastapi")
+public class FastApiProperties {
+
+    private String baseUrl;
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 응답을 읽는 동안 네트워크 read 사이에 허용되는 최대 간격 (요청 단위로 적용)
+     */
+    private Duration responseTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 요청 바디 쓰기 한 번에 허용되는 최대 시간. 응답 대기와 별개로, 상대가 읽지 않아 쓰기가 멈춘 커넥션을 정리합니다.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    /**
+     * true이면 HTTP/1.1 Upgrade를 통해 h2c(평문 HTTP/2)로 연결을 시도합니다.
+     */
+    private boolean http2 = false;
+
+    /**
+     * 대화형 /chat, /chat/stream 호출 레인
+     */
+    private Lane chat = new Lane(200, 150, 300, Duration.ofSeconds(5));
+
+    /**
+     * /chat/report 호출 레인 (낮은 우선순위)
+     */
+    private Lane report = new Lane(20, 8, 100, Duration.ofSeconds(30));
+
+    private Shedding shedding = new Shedding();
+
+    /**
+     * 채팅 레인 동시 호출 한도를 지연 기반으로 조절합니다. chat.max-concurrency가 상한입니다.
+     */
+    private AdaptiveLimit adaptiveLimit = new AdaptiveLimit();
+
+    private Resilience resilience = new Resilience();
+
+    /**
+     * 레인 응답 타임아웃이 비어 있으면 공통 응답 타임아웃을 사용합니다.
+     */
+    public Duration responseTimeout(Lane lane) {
+        return lane.getResponseTimeout() != null ? lane.getResponseTimeout() : responseTimeout;
+    }
+
+    @Getter
+    @Setter
+    public static class Lane {
+
+        private Pool pool = new Pool();
+
+        /**
+         * 레인에서 동시에 진행할 수 있는 FastAPI 호출 수
+         */
+        private int maxConcurrency;
+
+        /**
+         * 동시 호출 한도를 넘었을 때 대기할 수 있는 요청 수. 초과하면 즉시 거절합니다.
+         */
+        private int maxQueue;
+
+        private Duration queueTimeout;
+
+        /**
+         * 레인별 응답 타임아웃. 비어 있으면 fastapi.response-timeout을 사용합니다.
+         */
+        private Duration responseTimeout;
+
+        public Lane() {
+        }
+
+        Lane(int maxConnections, int maxConcurrency, int maxQueue, Duration queueTimeout) {
+            this.pool.setMaxConnections(maxConnections);
+            this.maxConcurrency = maxConcurrency;
+            this.maxQueue = maxQueue;
+            this.queueTimeout = queueTimeout;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int maxConnections = 200;
+
+        /**
+         * 커넥션을 기다릴 수 있는 최대 요청 수. 초과하면 즉시 실패합니다.
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * 최근 반납된 커넥션부터 재사용하여 유휴 커넥션이 자연스럽게 정리되도록 합니다.
+         */
+        private boolean lifo = true;
+
+        private boolean metrics = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Shedding {
+
+        /**
+         * 채팅 레인 응답 지연(EWMA)이 이 값을 넘으면 리포트 레인의 동시 호출 수를 줄입니다.
+         */
+        private Duration chatLatencyBudget = Duration.ofSeconds(5);
+
+        /**
+         * 채팅 레인이 예산을 넘은 동안 리포트 레인에 허용할 동시 호출 수
+         */
+        private int reportDegradedConcurrency = 1;
+
+        /**
+         * 마지막 채팅 샘플 이후 이 시간이 지나면 지연 초과 상태를 해제합니다.
+         */
+        private Duration sampleStaleAfter = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class AdaptiveLimit {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        /**
+         * RTT가 최소 RTT의 몇 배까지 늘어나도 한도를 줄이지 않을지
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * 과부하성 실패(타임아웃, 5xx) 시 한도에 곱하는 비율
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * 새 한도를 반영하는 비율 (0~1, 클수록 빠르게 반응)
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * 최소 RTT를 다시 측정하는 주기
+         */
+        private Duration minRttResetInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        private Retry retry = new Retry();
+    }
+
+    /**
+     * 레인별로 하나씩 생성되는 서킷 브레이커 설정
+     */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        private float failureRateThreshold = 50;
+
+        private float slowCallRateThreshold = 100;
+
+        /**
+         * 이보다 오래 걸린 호출을 느린 호출로 집계합니다. 비어 있으면(기본값) 레인별 응답 타임아웃보다 길게 잡아
+         * 느린 호출 판정을 끕니다. 스트림은 전체 길이가 길어 정상 호출도 느린 호출로 집계되기 때문입니다.
+         */
+        private Duration slowCallDurationThreshold;
+
+        private int slidingWindowSize = 20;
+
+        private int minimumNumberOfCalls = 10;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(15);
+
+        private int permittedNumberOfCallsInHalfOpenState = 3;
+    }
+
+    /**
+     * 처리되지 않았다고 확신할 수 있는 실패(연결 단계 실패, 503)에 대한 재시도 예산
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /**
+         * 최초 호출을 제외한 최대 재시도 횟수
+         */
+        private int maxAttempts = 2;
+
+        private Duration backoff = Duration.ofMillis(200);
+
+        /**
+         * 요청 1건당 적립되는 재시도 토큰 (0.1 = 요청의 10%까지 재시도)
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * 트래픽이 적을 때도 허용할 초당 최소 재시도 수
+         */
+        private int minRetriesPerSecond = 3;
+    }
+}
@@ -0,0 +1,96 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * loadtest 프로필 전용 설정 (FastAPI 시뮬레이터 + 부하 생성기)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    private Simulator simulator = new Simulator();
+
+    private Driver driver = new Driver();
+
+    @Getter
+    @Setter
+    public static class Simulator {
+
+        /**
+         * 첫 토큰까지 지연의 중앙값 (로그정규분포)
+         */
+        private Duration firstTokenMedian = Duration.ofMillis(800);
+
+        /**
+         * 첫 토큰 지연 분포의 sigma. 0.5이면 p99가 중앙값의 약 3.2배입니다.
+         */
+        private double firstTokenSigma = 0.5;
+
+        private double tokensPerSecond = 30;
+
+        private int tokensPerChunk = 3;
+
+        private int responseTokens = 120;
+
+        /**
+         * 청크 간격에 적용하는 ±비율 (0.2 = ±20%)
+         */
+        private double jitter = 0.2;
+
+        /**
+         * 503 응답으로 실패시키는 호출 비율
+         */
+        private double errorRate = 0;
+
+        /**
+         * 응답 없이 멈춘 뒤 timeoutAfter가 지나면 타임아웃으로 실패시키는 호출 비율
+         */
+        private double timeoutRate = 0;
+
+        private Duration timeoutAfter = Duration.ofSeconds(60);
+
+        /**
+         * 세션이 이 턴 수에 도달하면 is_completed=true로 응답합니다.
+         */
+        private int completeAfterTurns = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Driver {
+
+        /**
+         * true이면 애플리케이션 기동 후 부하 생성을 시작합니다.
+         */
+        private boolean enabled = false;
+
+        /**
+         * 비어 있으면 자기 자신(http://localhost:{server.port})을 대상으로 합니다.
+         */
+        private String baseUrl;
+
+        /**
+         * 동시에 열어 둘 SSE 스트림(세션) 수
+         */
+        private int concurrency = 100;
+
+        private int sessions = 1000;
+
+        private int turnsPerSession = 3;
+
+        private String message = "재귀함수에서 종료 조건은 왜 필요한가요?";
+
+        private Duration requestTimeout = Duration.ofMinutes(2);
+
+        /**
+         * 부하 생성이 끝나면 애플리케이션을 종료합니다.
+         */
+        private boolean exitOnFinish = false;
+    }
+}
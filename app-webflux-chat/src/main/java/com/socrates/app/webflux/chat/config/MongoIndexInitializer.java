@@ -0,0 +1,172 @@
+package com.socrates.app.webflux.chat.config;
+
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import com.socrates.app.webflux.chat.domain.SessionReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅 모듈의 조회 패턴에 맞는 인덱스를 기동 완료 후 논블로킹으로 생성하고,
+ * 저장소 쿼리 형태마다 explain을 실행해 COLLSCAN이 남아 있으면 경고합니다.
+ * 인덱스 생성이 실패해도 애플리케이션 기동에는 영향을 주지 않습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+    private static final String COLLSCAN = "COLLSCAN";
+    private static final String SAMPLE = "__explain__";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ChatPersistenceProperties persistenceProperties;
+
+    private record IndexSpec(Class<?> entity, Index index) {
+    }
+
+    private record QueryShape(String name, Class<?> entity, Document filter, Document sort) {
+    }
+
+    private static final List<IndexSpec> INDEXES = List.of(
+            // 세션 기록 조회(findBySessionIdOrderByCreatedAtAsc)와 (createdAt, _id) 키셋 페이지네이션
+            new IndexSpec(ChatMessage.class, new Index()
+                    .on("sessionId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("idx_session_created_id")),
+            // 사용자+세션 히스토리 로드 (상태 조건 포함)
+            new IndexSpec(ChatMessage.class, new Index()
+                    .on("userId", Sort.Direction.ASC)
+                    .on("sessionId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .named("idx_user_session_created")),
+            // 사용자별 최신 메시지 조회 (app-mvc-analytics와 같은 정의)
+            new IndexSpec(ChatMessage.class, new Index()
+                    .on("userId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.DESC)
+                    .named("idx_user_created")),
+            // 세션당 리포트는 하나
+            new IndexSpec(SessionReport.class, new Index()
+                    .on("sessionId", Sort.Direction.ASC)
+                    .unique()
+                    .named("uniq_session")),
+            new IndexSpec(SessionReport.class, new Index()
+                    .on("userId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.DESC)
+                    .named("idx_user_created"))
+    );
+
+    private static final List<QueryShape> QUERY_SHAPES = List.of(
+            new QueryShape("ChatMessageRepository.findBySessionIdOrderByCreatedAtAsc", ChatMessage.class,
+                    new Document("sessionId", SAMPLE),
+                    new Document("createdAt", 1)),
+            new QueryShape("ChatMessageService.getChatHistoryPage", ChatMessage.class,
+                    new Document("sessionId", SAMPLE).append("$or", List.of(
+                            new Document("createdAt", new Document("$gt", new Date())),
+                            new Document("createdAt", new Date()).append("_id", new Document("$gt", SAMPLE)))),
+                    new Document("createdAt", 1).append("_id", 1)),
+            new QueryShape("ChatMessageRepository.findByUserIdAndSessionIdOrderByCreatedAtDesc", ChatMessage.class,
+                    new Document("userId", SAMPLE).append("sessionId", SAMPLE),
+                    new Document("createdAt", -1)),
+            new QueryShape("ChatMessageRepository.findByUserIdAndSessionIdAndStatusOrderByCreatedAtAsc", ChatMessage.class,
+                    new Document("userId", SAMPLE).append("sessionId", SAMPLE)
+                            .append("status", ChatMessage.MessageStatus.COMPLETED.name()),
+                    new Document("createdAt", 1)),
+            new QueryShape("ChatMessageRepository.findByUserIdOrderByCreatedAtDesc", ChatMessage.class,
+                    new Document("userId", SAMPLE),
+                    new Document("createdAt", -1)),
+            new QueryShape("SessionReportRepository.findBySessionId", SessionReport.class,
+                    new Document("sessionId", SAMPLE),
+                    new Document()),
+            new QueryShape("SessionReportRepository.findByUserIdOrderByCreatedAtDesc", SessionReport.class,
+                    new Document("userId", SAMPLE),
+                    new Document("createdAt", -1))
+    );
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        ChatPersistenceProperties.Indexes indexes = persistenceProperties.getIndexes();
+        if (!indexes.isBootstrap() && !indexes.isVerifyQueryShapes()) {
+            return;
+        }
+
+        Mono<Void> ensure = indexes.isBootstrap()
+                ? Flux.fromIterable(INDEXES).concatMap(this::ensureIndex).then()
+                : Mono.empty();
+        Mono<Void> verify = indexes.isVerifyQueryShapes()
+                ? Flux.fromIterable(QUERY_SHAPES).concatMap(this::verify).then()
+                : Mono.empty();
+
+        ensure.then(verify)
+                .subscribe(
+                        unused -> {
+                        },
+                        error -> log.error("MongoDB 인덱스 초기화 실패: {}", error.getMessage()),
+                        () -> log.info("MongoDB 인덱스 초기화 완료"));
+    }
+
+    private Mono<String> ensureIndex(IndexSpec spec) {
+        String collection = mongoTemplate.getCollectionName(spec.entity());
+        return mongoTemplate.indexOps(spec.entity())
+                .ensureIndex(spec.index())
+                .doOnSuccess(name -> log.debug("인덱스 확인 - collection: {}, index: {}", collection, name))
+                .onErrorResume(error -> {
+                    // 기존 중복 데이터(unique)나 같은 이름의 다른 정의가 있으면 실패하므로, 경고만 남기고 계속 진행합니다
+                    log.warn("인덱스 생성 실패 - collection: {}, index: {}, error: {}",
+                            collection, spec.index().getIndexOptions().get("name"), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> verify(QueryShape shape) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(shape.entity()))
+                .flatMap(collection -> Mono.from(collection.find(shape.filter())
+                        .sort(shape.sort())
+                        .explain(Document.class)))
+                .doOnNext(plan -> {
+                    Object winningPlan = plan.get("queryPlanner", Document.class) != null
+                            ? plan.get("queryPlanner", Document.class).get("winningPlan")
+                            : null;
+                    if (containsStage(winningPlan, COLLSCAN)) {
+                        log.warn("COLLSCAN 쿼리 감지 - query: {}, filter: {}, sort: {}",
+                                shape.name(), shape.filter().keySet(), shape.sort().toJson());
+                    } else {
+                        log.debug("쿼리 실행 계획 확인 - query: {}", shape.name());
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.warn("쿼리 실행 계획 확인 실패 - query: {}, error: {}", shape.name(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * 실행 계획 트리(inputStage, inputStages, queryPlan 등)를 재귀적으로 탐색합니다.
+     */
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Map<?, ?> map) {
+            if (stage.equals(map.get("stage"))) {
+                return true;
+            }
+            return map.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
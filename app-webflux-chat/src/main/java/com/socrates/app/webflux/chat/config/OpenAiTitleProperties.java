@@ -0,0 +1,40 @@
+package com.socrates.app.webflux.chat.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "openai.title")
+public class OpenAiTitleProperties {
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    private int maxConnections = 50;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * 이 시간 안에 제목이 생성되지 않으면 첫 메시지에서 뽑은 제목을 바로 반환합니다.
+     * 호출은 responseTimeout까지 계속 진행되어, 늦게 생성된 제목은 같은 첫 메시지의 다음 요청부터 사용됩니다.
+     */
+    private Duration latencyBudget = Duration.ofMillis(1500);
+
+    private Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        private long maxSize = 10_000;
+
+        private Duration ttl = Duration.ofHours(24);
+    }
+}
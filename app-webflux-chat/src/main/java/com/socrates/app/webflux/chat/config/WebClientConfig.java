@@ -1,39 +1,92 @@
 package com.socrates.app.webflux.chat.config;
 
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
-    @Value("${fastapi.base-url}")
-    private String fastapiBaseUrl;
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider fastapiChatConnectionProvider(FastApiProperties properties) {
+        return connectionProvider("fastapi-chat", properties.getChat().getPool());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider fastapiReportConnectionProvider(FastApiProperties properties) {
+        return connectionProvider("fastapi-report", properties.getReport().getPool());
+    }
+
+    @Bean
+    public WebClient fastapiChatWebClient(FastApiProperties properties, ConnectionProvider fastapiChatConnectionProvider) {
+        return fastapiWebClient(properties, properties.getChat(), fastapiChatConnectionProvider);
+    }
 
-    @Value("${fastapi.timeout:60000}")
-    private int timeout;
+    @Bean
+    public WebClient fastapiReportWebClient(FastApiProperties properties, ConnectionProvider fastapiReportConnectionProvider) {
+        return fastapiWebClient(properties, properties.getReport(), fastapiReportConnectionProvider);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAiTitleConnectionProvider(OpenAiTitleProperties properties) {
+        return ConnectionProvider.builder("openai-title")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .build();
+    }
 
     @Bean
-    public WebClient fastapiWebClient() {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeout)
-                .responseTimeout(Duration.ofMillis(timeout))
-                .doOnConnected(conn ->
-                        conn.addHandlerLast(new ReadTimeoutHandler(timeout, TimeUnit.MILLISECONDS))
-                                .addHandlerLast(new WriteTimeoutHandler(timeout, TimeUnit.MILLISECONDS)));
+    public WebClient openAiWebClient(OpenAiTitleProperties properties, ConnectionProvider openAiTitleConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(openAiTitleConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
 
         return WebClient.builder()
-                .baseUrl(fastapiBaseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
+
+    private WebClient fastapiWebClient(FastApiProperties properties, FastApiProperties.Lane lane,
+                                       ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.responseTimeout(lane))
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new WriteTimeoutHandler(properties.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+
+        if (properties.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return WebClient.builder()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private ConnectionProvider connectionProvider(String name, FastApiProperties.Pool pool) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                // reactor.netty.connection.provider.* (활성/유휴/대기 커넥션, 획득 대기 시간) 메트릭
+                .metrics(pool.isMetrics());
+
+        if (pool.isLifo()) {
+            builder.lifo();
+        }
+        return builder.build();
+    }
 }
@@ -0,0 +1,149 @@
+package com.socrates.app.webflux.chat.context;
+
+import com.socrates.app.webflux.chat.config.ChatContextProperties;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
+import com.socrates.app.webflux.chat.service.ChatSummaryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 세션 히스토리에 컨텍스트 정책(최근 N턴 + 토큰 예산 + 선택적 롤링 요약)을 적용해
+ * FastAPI 요청을 만듭니다. 정책이 꺼져 있으면(기본값) 전체 히스토리를 그대로 전달합니다.
+ */
+@Slf4j
+@Component
+public class ChatContextAssembler {
+
+    static final String SUMMARY_LABEL = "[이전 대화 요약]";
+
+    private final ChatContextProperties properties;
+    private final ChatSummaryService chatSummaryService;
+    private final DistributionSummary originalTokens;
+    private final DistributionSummary sentTokens;
+    private final DistributionSummary trimmedTurns;
+
+    public ChatContextAssembler(
+            ChatContextProperties properties,
+            ChatSummaryService chatSummaryService,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.chatSummaryService = chatSummaryService;
+        this.originalTokens = DistributionSummary.builder("chat.context.tokens")
+                .description("FastAPI 요청 컨텍스트의 추정 토큰 수")
+                .tag("stage", "original")
+                .register(meterRegistry);
+        this.sentTokens = DistributionSummary.builder("chat.context.tokens")
+                .description("FastAPI 요청 컨텍스트의 추정 토큰 수")
+                .tag("stage", "sent")
+                .register(meterRegistry);
+        this.trimmedTurns = DistributionSummary.builder("chat.context.trimmed.turns")
+                .description("컨텍스트 정책으로 제외된 턴 수")
+                .register(meterRegistry);
+    }
+
+    public Mono<FastApiChatRequest> assemble(ChatRequest request) {
+        List<ChatRequest.ChatHistoryItem> history = request.getHistory() != null ? request.getHistory() : List.of();
+        ChatContextWindow window = properties.isEnabled()
+                ? selectWindow(history, request.getMessage())
+                : fullWindow(history, request.getMessage());
+
+        originalTokens.record(window.originalTokens());
+        trimmedTurns.record(window.droppedTurns().size());
+
+        if (!window.isTrimmed() || !properties.getSummary().isEnabled()) {
+            return Mono.just(toFastApiRequest(request, window.keptTurns(), null));
+        }
+
+        log.debug("컨텍스트 윈도우 적용 - sessionId: {}, kept: {}, dropped: {}",
+                request.getSessionId(), window.keptTurns().size(), window.droppedTurns().size());
+
+        return Mono.fromSupplier(() -> toFastApiRequest(request, window.keptTurns(),
+                chatSummaryService.rollingSummary(window.droppedTurns())));
+    }
+
+    /**
+     * 최신 턴부터 거꾸로 채우면서 턴 수와 토큰 예산을 넘기 직전에서 멈춥니다.
+     */
+    public ChatContextWindow selectWindow(List<ChatRequest.ChatHistoryItem> history, String message) {
+        int messageTokens = TokenEstimator.estimate(message);
+        int budget = properties.getMaxTokens() - messageTokens;
+        int originalTokens = messageTokens;
+        int keptTokens = messageTokens;
+        int start = history.size();
+        boolean full = false;
+
+        for (int i = history.size() - 1; i >= 0; i--) {
+            int cost = estimate(history.get(i));
+            originalTokens += cost;
+
+            if (full || history.size() - i > properties.getMaxTurns() || cost > budget) {
+                full = true;
+                continue;
+            }
+            budget -= cost;
+            keptTokens += cost;
+            start = i;
+        }
+
+        return new ChatContextWindow(
+                history.subList(start, history.size()),
+                history.subList(0, start),
+                originalTokens,
+                keptTokens);
+    }
+
+    private ChatContextWindow fullWindow(List<ChatRequest.ChatHistoryItem> history, String message) {
+        int tokens = TokenEstimator.estimate(message);
+        for (ChatRequest.ChatHistoryItem item : history) {
+            tokens += estimate(item);
+        }
+        return new ChatContextWindow(history, List.of(), tokens, tokens);
+    }
+
+    private FastApiChatRequest toFastApiRequest(
+            ChatRequest request,
+            List<ChatRequest.ChatHistoryItem> turns,
+            String summary) {
+
+        List<String> userInputList = new ArrayList<>(turns.size() * 2 + 3);
+
+        // user/assistant 교대 순서를 유지하기 위해 요약도 한 쌍으로 넣습니다.
+        if (summary != null) {
+            userInputList.add(SUMMARY_LABEL);
+            userInputList.add(summary);
+        }
+
+        for (ChatRequest.ChatHistoryItem item : turns) {
+            userInputList.add(item.getUserMessage());
+            userInputList.add(item.getAssistantMessage());
+        }
+
+        userInputList.add(request.getMessage());
+
+        int tokens = 0;
+        for (String input : userInputList) {
+            tokens += TokenEstimator.estimate(input);
+        }
+        sentTokens.record(tokens);
+
+        FastApiChatRequest.DataWrapper dataWrapper = FastApiChatRequest.DataWrapper.builder()
+                .user_input(userInputList)
+                .build();
+
+        return FastApiChatRequest.builder()
+                .data(dataWrapper)
+                .sessionId(request.getSessionId())
+                .build();
+    }
+
+    private int estimate(ChatRequest.ChatHistoryItem item) {
+        return TokenEstimator.estimate(item.getUserMessage()) + TokenEstimator.estimate(item.getAssistantMessage());
+    }
+}
@@ -0,0 +1,24 @@
+package com.socrates.app.webflux.chat.context;
+
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+
+import java.util.List;
+
+/**
+ * 컨텍스트 정책을 적용한 결과입니다.
+ *
+ * @param keptTurns       FastAPI에 그대로 전달할 최근 턴
+ * @param droppedTurns    윈도우 밖으로 밀려난 오래된 턴
+ * @param originalTokens  정책 적용 전 추정 토큰 수
+ * @param keptTokens      정책 적용 후 추정 토큰 수 (요약 제외)
+ */
+public record ChatContextWindow(
+        List<ChatRequest.ChatHistoryItem> keptTurns,
+        List<ChatRequest.ChatHistoryItem> droppedTurns,
+        int originalTokens,
+        int keptTokens) {
+
+    public boolean isTrimmed() {
+        return !droppedTurns.isEmpty();
+    }
+}
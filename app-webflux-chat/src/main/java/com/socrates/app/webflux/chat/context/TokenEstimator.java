@@ -0,0 +1,34 @@
+package com.socrates.app.webflux.chat.context;
+
+/**
+ * 토크나이저 없이 토큰 수를 빠르게 추정합니다.
+ * 한글 음절/자모와 기타 CJK 문자는 문자당 1토큰, ASCII는 4문자당 1토큰으로 계산합니다.
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int wide = 0;
+        int ascii = 0;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ascii++;
+            } else if (Character.isHighSurrogate(c)) {
+                wide++;
+                i++;
+            } else {
+                wide++;
+            }
+        }
+        return wide + (ascii + 3) / 4;
+    }
+}
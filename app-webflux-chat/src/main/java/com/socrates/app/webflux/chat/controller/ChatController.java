@@ -1,39 +1,111 @@
 package com.socrates.app.webflux.chat.controller;
 
+import com.socrates.app.webflux.chat.admission.ChatStreamAdmission;
+import com.socrates.app.webflux.chat.config.ChatAdmissionProperties;
+import com.socrates.app.webflux.chat.config.ChatHistoryPageProperties;
+import com.socrates.app.webflux.chat.config.ChatReportProperties;
 import com.socrates.app.webflux.chat.dto.ChatHistoryResponse;
 import com.socrates.app.webflux.chat.dto.ChatRequest;
 import com.socrates.app.webflux.chat.dto.ChatTitleResponse;
 import com.socrates.app.webflux.chat.dto.SessionReportResponse;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import com.socrates.app.webflux.chat.metrics.ChatStreamMetrics;
+import com.socrates.app.webflux.chat.service.ChatHistoryCursor;
 import com.socrates.app.webflux.chat.service.ChatMessageService;
 import com.socrates.app.webflux.chat.service.ChatService;
+import com.socrates.app.webflux.chat.service.ChatStreamResumeService;
 import com.socrates.app.webflux.chat.service.ChatTitleService;
+import com.socrates.app.webflux.chat.service.ReportEventPublisher;
 import com.socrates.app.webflux.chat.service.SessionReportService;
+import com.socrates.app.webflux.chat.sse.SseChunkCoalescer;
+import com.socrates.app.webflux.chat.sse.SseEventId;
+import com.socrates.app.webflux.chat.sse.SseFrameEncoder;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/chat")
 @RequiredArgsConstructor
 public class ChatController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int UNPAGED = 0;
+
     private final ChatService chatService;
     private final ChatTitleService chatTitleService;
     private final ChatMessageService chatMessageService;
     private final SessionReportService sessionReportService;
+    private final SseChunkCoalescer sseChunkCoalescer;
+    private final SseFrameEncoder sseFrameEncoder;
+    private final ReportEventPublisher reportEventPublisher;
+    private final ChatReportProperties reportProperties;
+    private final ChatStreamAdmission chatStreamAdmission;
+    private final ChatAdmissionProperties admissionProperties;
+    private final ChatStreamMetrics chatStreamMetrics;
+    private final ChatStreamResumeService chatStreamResumeService;
+    private final ChatHistoryPageProperties historyPageProperties;
 
     @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<String>> streamChat(@Valid @RequestBody ChatRequest request) {
+    public Mono<Void> streamChat(@Valid @RequestBody ChatRequest request, ServerHttpResponse response) {
         log.info("채팅 스트림 요청 수신 - userId: {}, sessionId: {}",
                 request.getUserId(), request.getSessionId());
 
-        return chatService.streamChat(request);
+        ChatStreamAdmission.Ticket ticket = chatStreamAdmission.tryAdmit(request.getUserId(), request.getSessionId());
+        if (ticket == null) {
+            return rejectStream(response);
+        }
+
+        response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+        return response.writeAndFlushWith(
+                        chatStreamMetrics.response(sseFrameEncoder.encode(
+                                        sseChunkCoalescer.coalesce(chatService.streamChat(request),
+                                                request.getCoalesceMaxBytes(),
+                                                toDuration(request.getCoalesceMaxLatencyMs())),
+                                        response.bufferFactory()))
+                                .map(Flux::just))
+                .doFinally(signal -> ticket.release());
+    }
+
+    @GetMapping(value = "/stream/resume", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<Void> resumeStream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            @RequestParam String userId,
+            @RequestParam String sessionId,
+            @RequestParam(required = false) Integer coalesceMaxBytes,
+            @RequestParam(required = false) Long coalesceMaxLatencyMs,
+            ServerHttpResponse response) {
+
+        SseEventId lastEventId = SseEventId.parse(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+        if (lastEventId == null) {
+            log.warn("잘못된 Last-Event-ID - header: {}, param: {}", lastEventIdHeader, lastEventIdParam);
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return response.setComplete();
+        }
+        log.info("채팅 스트림 재개 요청 - userId: {}, sessionId: {}, messageId: {}, seq: {}",
+                userId, sessionId, lastEventId.messageId(), lastEventId.seq());
+
+        response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+        return response.writeAndFlushWith(
+                sseFrameEncoder.encode(
+                                sseChunkCoalescer.coalesce(chatStreamResumeService.resume(lastEventId, userId, sessionId),
+                                        coalesceMaxBytes, toDuration(coalesceMaxLatencyMs)),
+                                response.bufferFactory())
+                        .map(Flux::just));
     }
 
     @PostMapping("/title")
@@ -46,20 +118,44 @@ public class ChatController {
                         .build());
     }
 
+    /**
+     * 채팅 기록을 조회합니다. limit과 cursor가 모두 없으면 기존처럼 전체 기록을 반환하고,
+     * 둘 중 하나라도 있으면 (createdAt, _id) 키셋 기준으로 limit개씩 조회합니다.
+     * JSON 배열 응답은 다음 페이지가 있을 수 있으면 X-Next-Cursor 헤더로 다음 요청의 cursor를 알려주고,
+     * Accept: application/x-ndjson이면 긴 기록을 한 줄씩 렌더링할 수 있도록 스트리밍합니다(마지막 줄의 cursor로 이어서 조회).
+     */
     @GetMapping("/history/{sessionId}")
-    public Flux<ChatHistoryResponse> getChatHistory(@PathVariable String sessionId) {
-        log.info("채팅 기록 조회 요청 - sessionId: {}", sessionId);
+    public Mono<ResponseEntity<Flux<ChatHistoryResponse>>> getChatHistory(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean preview,
+            ServerHttpRequest request) {
+        boolean ndjson = request.getHeaders().getAccept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        log.info("채팅 기록 조회 요청 - sessionId: {}, limit: {}, preview: {}, ndjson: {}", sessionId, limit, preview, ndjson);
 
-        return chatMessageService.getChatHistory(sessionId)
-                .map(message -> ChatHistoryResponse.builder()
-                        .id(message.getId())
-                        .userMessage(message.getUserMessage())
-                        .assistantMessage(message.getAssistantMessage())
-                        .createdAt(message.getCreatedAt())
-                        .completedAt(message.getCompletedAt())
-                        .status(message.getStatus() != null ? message.getStatus().name() : null)
-                        .isComplete(message.getIsComplete())
-                        .build());
+        ChatHistoryCursor after = ChatHistoryCursor.decode(cursor);
+        if (cursor != null && after == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 cursor입니다."));
+        }
+
+        int pageSize = limit == null && cursor == null ? UNPAGED : pageSize(limit);
+        Flux<ChatHistoryResponse> page = historyPage(sessionId, after, pageSize, preview);
+        if (ndjson) {
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(page));
+        }
+
+        return page.collectList()
+                .map(messages -> {
+                    ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+                    if (pageSize != UNPAGED && messages.size() == pageSize) {
+                        builder.header(NEXT_CURSOR_HEADER, messages.get(messages.size() - 1).getCursor());
+                    }
+                    return builder.body(Flux.fromIterable(messages));
+                });
     }
 
     @GetMapping("/report/{sessionId}")
@@ -78,6 +174,63 @@ public class ChatController {
                         .build());
     }
 
+    @GetMapping(value = "/report/{sessionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<Void> subscribeReport(@PathVariable String sessionId, ServerHttpResponse response) {
+        log.info("리포트 이벤트 구독 요청 - sessionId: {}", sessionId);
+
+        response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+        return response.writeAndFlushWith(
+                sseFrameEncoder.encode(
+                                reportEventPublisher.subscribe(sessionId,
+                                        reportProperties.getPreGeneration().getSubscribeTimeout()),
+                                response.bufferFactory())
+                        .map(Flux::just));
+    }
+
+    private Mono<Void> rejectStream(ServerHttpResponse response) {
+        long retryAfterSeconds = admissionProperties.getRetryAfter().toSeconds();
+
+        if (admissionProperties.getRejectMode() == ChatAdmissionProperties.RejectMode.EVENT) {
+            response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+            return response.writeWith(Mono.fromSupplier(() ->
+                    sseFrameEncoder.encode(SseEvent.busy(retryAfterSeconds), response.bufferFactory())));
+        }
+
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private Flux<ChatHistoryResponse> historyPage(String sessionId, ChatHistoryCursor after, int limit, boolean preview) {
+        return chatMessageService.getChatHistoryPage(sessionId, after, limit, preview)
+                .map(message -> ChatHistoryResponse.builder()
+                        .id(message.getId())
+                        .userMessage(preview ? truncate(message.getUserMessage()) : message.getUserMessage())
+                        .assistantMessage(message.getAssistantMessage())
+                        .createdAt(message.getCreatedAt())
+                        .completedAt(message.getCompletedAt())
+                        .status(message.getStatus() != null ? message.getStatus().name() : null)
+                        .isComplete(message.getIsComplete())
+                        .cursor(ChatHistoryCursor.after(message).encode())
+                        .build());
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return historyPageProperties.getDefaultLimit();
+        }
+        return Math.max(1, Math.min(limit, historyPageProperties.getMaxLimit()));
+    }
+
+    private String truncate(String text) {
+        int maxChars = historyPageProperties.getPreviewChars();
+        return text != null && text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+
+    private static Duration toDuration(Long millis) {
+        return millis != null ? Duration.ofMillis(millis) : null;
+    }
+
     @GetMapping("/health")
     public String health() {
         return "OK";
@@ -10,7 +10,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "chat_messages")
@@ -41,6 +41,10 @@ public class ChatMessage {
         PENDING,
         STREAMING,
         COMPLETED,
-        FAILED
+        FAILED,
+        /**
+         * 응답 도중 클라이언트가 연결을 끊어 생성을 중단한 메시지 (그때까지의 부분 응답 보존)
+         */
+        CANCELLED
     }
 }
@@ -26,4 +26,9 @@ public class ChatHistoryResponse {
     private String status;
 
     private Boolean isComplete;
+
+    /**
+     * 이 메시지 다음부터 조회할 때 사용하는 페이지 커서
+     */
+    private String cursor;
 }
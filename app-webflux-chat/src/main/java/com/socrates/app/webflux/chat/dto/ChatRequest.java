@@ -21,6 +21,21 @@ public class ChatRequest {
 
     private String sessionId;
 
+    /**
+     * 클라이언트가 요청마다 발급하는 멱등 키. 같은 값으로 재전송하면 진행 중인 턴의 응답을 함께 받습니다(COALESCE 모드).
+     */
+    private String requestId;
+
+    /**
+     * 응답 청크를 합치는 바이트 예산(UTF-8). 비어 있으면 서버 설정값을 사용합니다.
+     */
+    private Integer coalesceMaxBytes;
+
+    /**
+     * 응답 청크를 합칠 때 최대 대기 시간(ms). 비어 있으면 서버 설정값을 사용합니다.
+     */
+    private Long coalesceMaxLatencyMs;
+
     private List<ChatHistoryItem> history;
 
     @Data
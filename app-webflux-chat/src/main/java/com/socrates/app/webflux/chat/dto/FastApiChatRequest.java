@@ -1,5 +1,6 @@
 package com.socrates.app.webflux.chat.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,12 @@ public class FastApiChatRequest {
 
     private DataWrapper data;
 
+    /**
+     * 요청을 만든 세션. FastAPI로는 보내지 않고 서버 내부(더미 클라이언트 등)에서만 사용합니다.
+     */
+    @JsonIgnore
+    private String sessionId;
+
     @Data
     @Builder
     @NoArgsConstructor
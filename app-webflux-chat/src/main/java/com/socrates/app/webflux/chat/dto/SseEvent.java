@@ -11,6 +11,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class SseEvent {
 
+    /**
+     * 재연결 시 Last-Event-ID로 돌려받는 이벤트 id. 재개를 지원하지 않는 스트림에서는 null
+     */
+    private String id;
     private String event;
     private Object data;
 
@@ -38,6 +42,23 @@ public class SseEvent {
                 .build();
     }
 
+    public static SseEvent error(String code, String message) {
+        return SseEvent.builder()
+                .event("error")
+                .data(ErrorData.builder()
+                        .code(code)
+                        .message(message)
+                        .build())
+                .build();
+    }
+
+    public static SseEvent busy(long retryAfterSeconds) {
+        return SseEvent.builder()
+                .event("busy")
+                .data(BusyData.builder().retryAfterSeconds(retryAfterSeconds).build())
+                .build();
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -54,4 +75,21 @@ public class SseEvent {
         private String sessionId;
         private String markdown;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorData {
+        private String code;
+        private String message;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BusyData {
+        private long retryAfterSeconds;
+    }
 }
@@ -0,0 +1,131 @@
+package com.socrates.app.webflux.chat.loadtest;
+
+import com.socrates.app.webflux.chat.config.LoadTestProperties;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * loadtest 프로필에서 /api/chat/stream에 동시 SSE 스트림을 열어 처리량, TTFB, 지연 분위수를 측정합니다.
+ * 세션마다 고유한 userId/sessionId를 쓰고, 세션 안의 턴은 순차적으로 보냅니다.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestDriver {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final LoadTestProperties properties;
+    private final Environment environment;
+    private final ApplicationContext applicationContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LoadTestProperties.Driver driver = properties.getDriver();
+        if (!driver.isEnabled()) {
+            return;
+        }
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("loadtest-driver")
+                .maxConnections(driver.getConcurrency() * 2)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(baseUrl(driver))
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+
+        log.info("부하 생성 시작 - target: {}, concurrency: {}, sessions: {}, turnsPerSession: {}",
+                baseUrl(driver), driver.getConcurrency(), driver.getSessions(), driver.getTurnsPerSession());
+
+        LoadTestReport report = new LoadTestReport();
+        Flux.range(0, driver.getSessions())
+                .flatMap(index -> runSession(webClient, driver, index, report), driver.getConcurrency())
+                .then(Mono.fromRunnable(() -> log.info("부하 생성 완료\n{}", report.summary())))
+                .doFinally(signal -> {
+                    connectionProvider.dispose();
+                    if (driver.isExitOnFinish()) {
+                        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> runSession(WebClient webClient, LoadTestProperties.Driver driver, int index,
+                                  LoadTestReport report) {
+        ChatRequest request = ChatRequest.builder()
+                .userId("loadtest-user-" + index)
+                .sessionId("loadtest-session-" + index)
+                .message(driver.getMessage() + " #" + index)
+                .build();
+
+        return Flux.range(0, driver.getTurnsPerSession())
+                .concatMap(turn -> runTurn(webClient, driver, request, report))
+                .then();
+    }
+
+    private Mono<Void> runTurn(WebClient webClient, LoadTestProperties.Driver driver, ChatRequest request,
+                               LoadTestReport report) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+
+            return webClient.post()
+                    .uri("/api/chat/stream")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToFlux(SSE_TYPE)
+                    .timeout(driver.getRequestTimeout())
+                    .doOnNext(event -> {
+                        if (first.compareAndSet(true, false)) {
+                            report.recordFirstByte(System.nanoTime() - start);
+                        }
+                        report.recordEvent(event.event());
+                    })
+                    .then(Mono.fromRunnable(() -> report.recordCompleted(System.nanoTime() - start)))
+                    .onErrorResume(error -> {
+                        if (error instanceof WebClientResponseException.TooManyRequests) {
+                            report.recordRejected();
+                        } else {
+                            report.recordFailed();
+                            log.debug("부하 생성 요청 실패 - sessionId: {}, error: {}", request.getSessionId(), error.getMessage());
+                        }
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private String baseUrl(LoadTestProperties.Driver driver) {
+        if (driver.getBaseUrl() != null && !driver.getBaseUrl().isBlank()) {
+            return driver.getBaseUrl();
+        }
+        return "http://localhost:" + environment.getProperty("local.server.port",
+                environment.getProperty("server.port", "8080"));
+    }
+}
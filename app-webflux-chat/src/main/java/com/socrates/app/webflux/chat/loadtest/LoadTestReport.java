@@ -0,0 +1,71 @@
+package com.socrates.app.webflux.chat.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 부하 생성 결과 집계. 턴 수가 많지 않으므로 모든 샘플을 보관해 정확한 분위수를 계산합니다.
+ */
+class LoadTestReport {
+
+    private final long startedAt = System.nanoTime();
+    private final List<Long> firstByteNanos = new ArrayList<>();
+    private final List<Long> durationNanos = new ArrayList<>();
+    private final Map<String, Long> events = new TreeMap<>();
+    private long rejected;
+    private long failed;
+
+    synchronized void recordFirstByte(long nanos) {
+        firstByteNanos.add(nanos);
+    }
+
+    synchronized void recordEvent(String event) {
+        events.merge(event != null ? event : "message", 1L, Long::sum);
+    }
+
+    synchronized void recordCompleted(long nanos) {
+        durationNanos.add(nanos);
+    }
+
+    synchronized void recordRejected() {
+        rejected++;
+    }
+
+    synchronized void recordFailed() {
+        failed++;
+    }
+
+    synchronized String summary() {
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+        long completed = durationNanos.size();
+
+        return String.format("""
+                        elapsed: %.1fs
+                        turns: completed=%d, rejected(429)=%d, failed=%d
+                        throughput: %.1f turns/s
+                        ttfb(ms): p50=%d, p95=%d, p99=%d, max=%d
+                        duration(ms): p50=%d, p95=%d, p99=%d, max=%d
+                        events: %s""",
+                elapsedSeconds,
+                completed, rejected, failed,
+                completed / Math.max(elapsedSeconds, 0.001),
+                percentile(firstByteNanos, 50), percentile(firstByteNanos, 95),
+                percentile(firstByteNanos, 99), percentile(firstByteNanos, 100),
+                percentile(durationNanos, 50), percentile(durationNanos, 95),
+                percentile(durationNanos, 99), percentile(durationNanos, 100),
+                events);
+    }
+
+    private static long percentile(List<Long> samples, int percentile) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000;
+    }
+}
@@ -0,0 +1,65 @@
+package com.socrates.app.webflux.chat.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 토큰으로 소유자를 확인하는 Redis 리스(SET NX PX).
+ * 연장과 해제는 현재 소유자의 토큰일 때만 반영되므로, 만료 후 다른 인스턴스가 잡은 리스를 건드리지 않습니다.
+ * Redis 오류는 그대로 전달하며, 장애 시 동작(fail-open 등)은 호출하는 쪽에서 정합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisLease {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public Mono<Boolean> tryAcquire(String key, String token, Duration ttl) {
+        return redisTemplate.opsForValue()
+                .setIfAbsent(key, token, ttl)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * 아직 token이 소유한 리스이면 만료 시간을 ttl로 다시 설정합니다. 이미 잃은 리스이면 false를 반환합니다.
+     */
+    public Mono<Boolean> renew(String key, String token, Duration ttl) {
+        return redisTemplate.execute(RENEW_SCRIPT, List.of(key), List.of(token, String.valueOf(ttl.toMillis())))
+                .next()
+                .map(result -> result > 0)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * 누구든 리스를 갖고 있으면 true를 반환합니다.
+     */
+    public Mono<Boolean> isHeld(String key) {
+        return redisTemplate.hasKey(key)
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Void> release(String key, String token) {
+        return redisTemplate.execute(RELEASE_SCRIPT, List.of(key), List.of(token))
+                .then();
+    }
+}
@@ -0,0 +1,175 @@
+package com.socrates.app.webflux.chat.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ChatService.streamChat 파이프라인의 단계별 지연과 턴 결과를 기록합니다.
+ * 느린 턴이 MongoDB, 이 서비스, 모델 중 어디에서 생기는지 구분하기 위한 지표입니다.
+ * <ul>
+ *     <li>chat.stream.stage{stage}: pending 저장, 히스토리 로드, 컨텍스트 조립, 이를 동시에 실행한 preflight 전체</li>
+ *     <li>chat.stream.fastapi{phase=first_response|complete}: FastAPI 첫 응답/전체 응답까지</li>
+ *     <li>chat.stream.ttfb, chat.stream.duration: 요청부터 첫 SSE 바이트/스트림 종료까지</li>
+ *     <li>chat.stream.chunks: 턴당 message 이벤트 수</li>
+ *     <li>chat.stream.turns{outcome=completed|failed|cancelled}, chat.stream.sessions.ended</li>
+ *     <li>chat.stream.resumed{source=buffer|stored|not_found}: Last-Event-ID 재개 요청</li>
+ * </ul>
+ */
+@Component
+public class ChatStreamMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Timer fastapiFirstResponse;
+    private final Timer fastapiComplete;
+    private final Timer timeToFirstByte;
+    private final Map<SignalType, Timer> streamDurations = new ConcurrentHashMap<>();
+    private final DistributionSummary chunksPerStream;
+    private final Counter turnsCompleted;
+    private final Counter turnsFailed;
+    private final Counter turnsCancelled;
+    private final Counter sessionsEnded;
+    private final Map<String, Counter> resumeCounters = new ConcurrentHashMap<>();
+
+    public ChatStreamMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.fastapiFirstResponse = fastapiTimer("first_response");
+        this.fastapiComplete = fastapiTimer("complete");
+        this.timeToFirstByte = Timer.builder("chat.stream.ttfb")
+                .description("채팅 스트림 요청부터 첫 SSE 프레임 전송까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.chunksPerStream = DistributionSummary.builder("chat.stream.chunks")
+                .description("채팅 턴당 전송한 message 이벤트 수")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.turnsCompleted = turnCounter("completed");
+        this.turnsFailed = turnCounter("failed");
+        this.turnsCancelled = turnCounter("cancelled");
+        this.sessionsEnded = Counter.builder("chat.stream.sessions.ended")
+                .description("chat_end로 종료된 세션 수")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> stage(String stage, Mono<T> source) {
+        Timer timer = stageTimers.computeIfAbsent(stage, name -> Timer.builder("chat.stream.stage")
+                .description("채팅 스트림 처리 단계별 소요 시간")
+                .tag("stage", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source.doOnSuccess(value -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public <T> Flux<T> fastapi(Flux<T> source) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return source
+                    .doOnNext(value -> {
+                        if (first.compareAndSet(true, false)) {
+                            fastapiFirstResponse.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnComplete(() -> fastapiComplete.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public <T> Mono<T> fastapi(Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source.doOnSuccess(value -> {
+                long elapsed = System.nanoTime() - start;
+                fastapiFirstResponse.record(elapsed, TimeUnit.NANOSECONDS);
+                fastapiComplete.record(elapsed, TimeUnit.NANOSECONDS);
+            });
+        });
+    }
+
+    /**
+     * 컨트롤러에서 인코딩된 SSE 프레임 스트림에 적용해 첫 바이트와 종료까지의 시간을 기록합니다.
+     */
+    public <T> Flux<T> response(Flux<T> frames) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            return frames
+                    .doOnNext(frame -> {
+                        if (first.compareAndSet(true, false)) {
+                            timeToFirstByte.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doFinally(signal -> streamDuration(signal).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public void recordChunks(int chunks) {
+        chunksPerStream.record(chunks);
+    }
+
+    public void turnCompleted() {
+        turnsCompleted.increment();
+    }
+
+    public void turnFailed() {
+        turnsFailed.increment();
+    }
+
+    public void turnCancelled() {
+        turnsCancelled.increment();
+    }
+
+    public void sessionEnded() {
+        sessionsEnded.increment();
+    }
+
+    public void streamResumed(String source) {
+        resumeCounters.computeIfAbsent(source, name -> Counter.builder("chat.stream.resumed")
+                        .description("Last-Event-ID로 재개한 채팅 스트림 수")
+                        .tag("source", name)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private Timer streamDuration(SignalType signal) {
+        return streamDurations.computeIfAbsent(signal, type -> Timer.builder("chat.stream.duration")
+                .description("채팅 스트림 요청부터 종료까지 걸린 시간")
+                .tag("signal", switch (type) {
+                    case ON_COMPLETE -> "complete";
+                    case ON_ERROR -> "error";
+                    case CANCEL -> "cancel";
+                    default -> type.name().toLowerCase();
+                })
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Timer fastapiTimer(String phase) {
+        return Timer.builder("chat.stream.fastapi")
+                .description("FastAPI 호출부터 첫 응답/전체 응답까지 걸린 시간")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter turnCounter(String outcome) {
+        return Counter.builder("chat.stream.turns")
+                .description("결과별 채팅 턴 수")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
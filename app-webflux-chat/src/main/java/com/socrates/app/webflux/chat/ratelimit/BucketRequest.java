@@ -0,0 +1,13 @@
+package com.socrates.app.webflux.chat.ratelimit;
+
+import com.socrates.app.webflux.chat.config.ChatRateLimitProperties;
+
+/**
+ * 한 요청에서 토큰을 하나씩 차감할 버킷. 여러 버킷은 모두 여유가 있을 때만 함께 차감됩니다.
+ */
+public record BucketRequest(String scope, String key, int capacity, double refillPerMillis) {
+
+    public static BucketRequest of(String scope, String key, ChatRateLimitProperties.Bucket bucket) {
+        return new BucketRequest(scope, key, bucket.getCapacity(), bucket.refillPerMillis());
+    }
+}
@@ -0,0 +1,62 @@
+package com.socrates.app.webflux.chat.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.socrates.app.webflux.chat.config.ChatRateLimitProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 인스턴스 메모리에 버킷을 두는 토큰 버킷 제한기입니다.
+ * LOCAL 모드이거나 Redis를 사용할 수 없을 때 사용합니다.
+ */
+@Component
+public class LocalTokenBucketLimiter {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalTokenBucketLimiter(ChatRateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxKeys())
+                .expireAfterAccess(properties.getLocalExpireAfterAccess())
+                .build();
+    }
+
+    public synchronized RateLimitDecision tryConsume(List<BucketRequest> requests) {
+        long now = System.currentTimeMillis();
+        Bucket[] resolved = new Bucket[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            BucketRequest request = requests.get(i);
+            Bucket bucket = buckets.get(request.key(), key -> new Bucket(request.capacity(), now));
+            bucket.refill(request.capacity(), request.refillPerMillis(), now);
+            if (bucket.tokens < 1) {
+                return RateLimitDecision.reject(
+                        (long) Math.ceil((1 - bucket.tokens) / request.refillPerMillis()), request.scope());
+            }
+            resolved[i] = bucket;
+        }
+
+        for (Bucket bucket : resolved) {
+            bucket.tokens -= 1;
+        }
+        return RateLimitDecision.allow();
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        private void refill(int capacity, double refillPerMillis, long now) {
+            tokens = Math.min(capacity, tokens + Math.max(0, now - updatedAt) * refillPerMillis);
+            updatedAt = now;
+        }
+    }
+}
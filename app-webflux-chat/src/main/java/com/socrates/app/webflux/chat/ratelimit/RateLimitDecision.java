@@ -0,0 +1,17 @@
+package com.socrates.app.webflux.chat.ratelimit;
+
+/**
+ * @param scope 거절한 버킷 범위 (user, session). 허용된 경우 null
+ */
+public record RateLimitDecision(boolean allowed, long retryAfterMillis, String scope) {
+
+    private static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0, null);
+
+    public static RateLimitDecision allow() {
+        return ALLOWED;
+    }
+
+    public static RateLimitDecision reject(long retryAfterMillis, String scope) {
+        return new RateLimitDecision(false, retryAfterMillis, scope);
+    }
+}
@@ -0,0 +1,182 @@
+package com.socrates.app.webflux.chat.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socrates.app.webflux.chat.config.ChatRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 설정된 엔드포인트(POST)에 대해 userId/sessionId 단위 토큰 버킷 제한을 적용합니다.
+ * 요청 바디에서 식별자를 읽어야 하므로 바디를 한 번 모은 뒤 같은 내용을 다시 흘려 보냅니다.
+ * 모으는 크기는 max-body-size로 제한하며, 넘으면 413으로 거절합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitWebFilter implements WebFilter {
+
+    private final ChatRateLimitProperties properties;
+    private final RedisTokenBucketLimiter redisTokenBucketLimiter;
+    private final LocalTokenBucketLimiter localTokenBucketLimiter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.POST) {
+            return chain.filter(exchange);
+        }
+
+        Map.Entry<String, ChatRateLimitProperties.Endpoint> endpoint = findEndpoint(request.getPath().value());
+        if (endpoint == null) {
+            return chain.filter(exchange);
+        }
+
+        return DataBufferUtils.join(request.getBody(), (int) properties.getMaxBodySize().toBytes())
+                .map(this::readBytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    ServerWebExchange cached = exchange.mutate().request(cachedBody(exchange, body)).build();
+                    List<BucketRequest> buckets = buckets(endpoint.getKey(), endpoint.getValue(), body, request);
+                    if (buckets.isEmpty()) {
+                        return chain.filter(cached);
+                    }
+
+                    return tryConsume(buckets)
+                            .flatMap(decision -> decision.allowed()
+                                    ? chain.filter(cached)
+                                    : reject(exchange, endpoint.getKey(), decision));
+                })
+                .onErrorResume(DataBufferLimitException.class, error -> tooLarge(exchange, endpoint.getKey()));
+    }
+
+    private Map.Entry<String, ChatRateLimitProperties.Endpoint> findEndpoint(String path) {
+        for (Map.Entry<String, ChatRateLimitProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            if (path.equals(entry.getValue().getPath())) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private Mono<RateLimitDecision> tryConsume(List<BucketRequest> buckets) {
+        if (properties.getBackend() == ChatRateLimitProperties.Backend.LOCAL) {
+            return Mono.fromSupplier(() -> localTokenBucketLimiter.tryConsume(buckets));
+        }
+        return redisTokenBucketLimiter.tryConsume(buckets);
+    }
+
+    /**
+     * 클러스터에서도 한 스크립트로 실행되도록 사용자 식별자를 해시 태그로 묶습니다.
+     */
+    private List<BucketRequest> buckets(String name, ChatRateLimitProperties.Endpoint endpoint,
+                                        byte[] body, ServerHttpRequest request) {
+        JsonNode json = parse(body);
+        String userId = text(json, "userId");
+        String sessionId = text(json, "sessionId");
+        String owner = userId != null ? "u:" + userId : "ip:" + clientIp(request);
+        String prefix = properties.getKeyPrefix() + "{" + owner + "}:" + name;
+
+        List<BucketRequest> buckets = new ArrayList<>(2);
+        if (endpoint.getUser() != null) {
+            buckets.add(BucketRequest.of("user", prefix + ":user", endpoint.getUser()));
+        }
+        if (endpoint.getSession() != null && sessionId != null) {
+            buckets.add(BucketRequest.of("session", prefix + ":session:" + sessionId, endpoint.getSession()));
+        }
+        return buckets;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String endpoint, RateLimitDecision decision) {
+        long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+        log.warn("요청 제한 초과 - endpoint: {}, scope: {}, retryAfter: {}s", endpoint, decision.scope(), retryAfterSeconds);
+
+        Counter.builder("chat.ratelimit.rejected")
+                .description("토큰 버킷 제한으로 거절한 요청 수")
+                .tag("endpoint", endpoint)
+                .tag("scope", decision.scope())
+                .register(meterRegistry)
+                .increment();
+
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    private Mono<Void> tooLarge(ServerWebExchange exchange, String endpoint) {
+        log.warn("요청 바디 크기 초과 - endpoint: {}, limit: {}", endpoint, properties.getMaxBodySize());
+        exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+        return exchange.getResponse().setComplete();
+    }
+
+    private ServerHttpRequest cachedBody(ServerWebExchange exchange, byte[] body) {
+        return new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+    }
+
+    private byte[] readBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            // 형식 오류는 컨트롤러의 요청 검증에 맡깁니다
+            return null;
+        }
+    }
+
+    private static String text(JsonNode json, String field) {
+        if (json == null) {
+            return null;
+        }
+        JsonNode node = json.get(field);
+        return node != null && node.isTextual() && !node.asText().isBlank() ? node.asText() : null;
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        String forwarded = request.getHeaders().getFirst("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded.split(",")[0].trim();
+        }
+        InetSocketAddress address = request.getRemoteAddress();
+        return address != null && address.getAddress() != null ? address.getAddress().getHostAddress() : "unknown";
+    }
+}
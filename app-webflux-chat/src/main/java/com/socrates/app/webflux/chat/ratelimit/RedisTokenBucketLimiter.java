@@ -0,0 +1,89 @@
+package com.socrates.app.webflux.chat.ratelimit;
+
+import com.socrates.app.webflux.chat.config.ChatRateLimitProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis Hash(tokens, ts)로 표현한 토큰 버킷을 Lua 스크립트 한 번으로 확인/차감합니다.
+ * 시각은 Redis TIME을 사용하므로 인스턴스 간 시계 차이의 영향을 받지 않습니다.
+ * Redis 호출이 실패하면 로컬 버킷으로 대체하고, redis-failure-cooldown 동안은 Redis를 호출하지 않습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisTokenBucketLimiter {
+
+    // 모든 버킷에 토큰이 있을 때만 함께 차감하고, 아니면 {0, 재시도까지 ms, 거절한 키 번호}를 반환
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local remaining = {}
+            for i = 1, #KEYS do
+                local capacity = tonumber(ARGV[i * 2 - 1])
+                local rate = tonumber(ARGV[i * 2])
+                local state = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+                local tokens = tonumber(state[1]) or capacity
+                local ts = tonumber(state[2]) or now
+                tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+                if tokens < 1 then
+                    return {0, math.ceil((1 - tokens) / rate), i}
+                end
+                remaining[i] = tokens - 1
+            end
+            for i = 1, #KEYS do
+                local capacity = tonumber(ARGV[i * 2 - 1])
+                local rate = tonumber(ARGV[i * 2])
+                redis.call('HSET', KEYS[i], 'tokens', tostring(remaining[i]), 'ts', now)
+                redis.call('PEXPIRE', KEYS[i], math.ceil(capacity / rate))
+            end
+            return {1, 0, 0}
+            """, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final LocalTokenBucketLimiter localTokenBucketLimiter;
+    private final ChatRateLimitProperties properties;
+
+    private volatile long localUntilNanos = System.nanoTime();
+
+    public Mono<RateLimitDecision> tryConsume(List<BucketRequest> requests) {
+        if (System.nanoTime() - localUntilNanos < 0) {
+            return Mono.fromSupplier(() -> localTokenBucketLimiter.tryConsume(requests));
+        }
+
+        List<String> keys = new ArrayList<>(requests.size());
+        List<String> args = new ArrayList<>(requests.size() * 2);
+        for (BucketRequest request : requests) {
+            keys.add(request.key());
+            args.add(String.valueOf(request.capacity()));
+            args.add(String.valueOf(request.refillPerMillis()));
+        }
+
+        return redisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args)
+                .next()
+                .map(result -> toDecision(result, requests))
+                .onErrorResume(error -> {
+                    Duration cooldown = properties.getRedisFailureCooldown();
+                    localUntilNanos = System.nanoTime() + cooldown.toNanos();
+                    log.warn("Redis 요청 제한 확인 실패, {} 동안 로컬 버킷으로 대체 - error: {}", cooldown, error.getMessage());
+                    return Mono.fromSupplier(() -> localTokenBucketLimiter.tryConsume(requests));
+                });
+    }
+
+    private RateLimitDecision toDecision(List<?> result, List<BucketRequest> requests) {
+        if (((Number) result.get(0)).longValue() == 1L) {
+            return RateLimitDecision.allow();
+        }
+        int rejectedIndex = ((Number) result.get(2)).intValue() - 1;
+        return RateLimitDecision.reject(((Number) result.get(1)).longValue(), requests.get(rejectedIndex).scope());
+    }
+}
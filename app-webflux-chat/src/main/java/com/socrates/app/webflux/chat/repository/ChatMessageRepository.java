@@ -10,6 +10,9 @@ public interface ChatMessageRepository extends ReactiveMongoRepository<ChatMessa
 
     Flux<ChatMessage> findByUserIdAndSessionIdOrderByCreatedAtDesc(String userId, String sessionId);
 
+    Flux<ChatMessage> findByUserIdAndSessionIdAndStatusOrderByCreatedAtAsc(
+            String userId, String sessionId, ChatMessage.MessageStatus status);
+
     Flux<ChatMessage> findByUserIdOrderByCreatedAtDesc(String userId);
 
     Flux<ChatMessage> findBySessionIdOrderByCreatedAtAsc(String sessionId);
@@ -0,0 +1,189 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socrates.app.webflux.chat.config.ChatHistoryCacheProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import com.socrates.app.webflux.chat.repository.ChatMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 세션별 user/assistant 턴을 Redis List에 순서대로 쌓아 두는 append-only 히스토리 캐시입니다.
+ * 리스트의 첫 원소는 초기화 마커로, 비어 있는 세션과 캐시 미스를 구분합니다.
+ * append마다 올라가는 버전 키로, 재구성 도중 완료된 턴이 오래된 목록에 덮여 사라지는 것을 막습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatHistoryCacheService {
+
+    private static final String INIT_MARKER = "~";
+
+    // RPUSH 한 번에 넘기는 항목 수 (Lua unpack 스택 한도보다 충분히 작게)
+    private static final int PUSH_CHUNK = 1000;
+
+    // 버전은 항상 올리고, 키가 있을 때만 추가하여 재구성되지 않은 캐시에 일부 턴만 쌓이는 것을 막습니다.
+    private static final RedisScript<Long> APPEND_SCRIPT = RedisScript.of("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('RPUSH', KEYS[1], ARGV[2])
+                redis.call('PEXPIRE', KEYS[1], ARGV[1])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // MongoDB를 읽기 전에 확인한 버전과 다르면(그 사이 append 발생) 오래된 목록으로 덮어쓰지 않습니다.
+    private static final RedisScript<Long> REBUILD_SCRIPT = RedisScript.of("""
+            local version = redis.call('GET', KEYS[2]) or '0'
+            if version ~= ARGV[2] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            local chunk = tonumber(ARGV[3])
+            for i = 4, #ARGV, chunk do
+                redis.call('RPUSH', KEYS[1], unpack(ARGV, i, math.min(i + chunk - 1, #ARGV)))
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageWriteBehindBuffer writeBehindBuffer;
+    private final ChatHistoryCacheProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public Mono<List<ChatRequest.ChatHistoryItem>> loadHistory(String userId, String sessionId) {
+        if (!properties.isEnabled()) {
+            return loadFromMongo(userId, sessionId);
+        }
+
+        return redisTemplate.opsForList().range(key(userId, sessionId), 0, -1)
+                .collectList()
+                .flatMap(entries -> entries.isEmpty()
+                        ? rebuild(userId, sessionId)
+                        : Mono.just(parseEntries(entries)))
+                .onErrorResume(error -> {
+                    log.warn("히스토리 캐시 조회 실패, MongoDB로 대체 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return loadFromMongo(userId, sessionId);
+                });
+    }
+
+    public Mono<Void> append(ChatMessage message) {
+        if (!properties.isEnabled() || message.getStatus() != ChatMessage.MessageStatus.COMPLETED) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> serialize(message))
+                .flatMap(entry -> redisTemplate.execute(
+                                APPEND_SCRIPT,
+                                keys(message.getUserId(), message.getSessionId()),
+                                List.of(ttlMillis(), entry))
+                        .next())
+                .doOnNext(appended -> log.debug("히스토리 캐시 append - sessionId: {}, appended: {}",
+                        message.getSessionId(), appended == 1L))
+                .onErrorResume(error -> {
+                    log.warn("히스토리 캐시 append 실패 - sessionId: {}, error: {}", message.getSessionId(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<List<ChatRequest.ChatHistoryItem>> rebuild(String userId, String sessionId) {
+        return redisTemplate.opsForValue().get(versionKey(userId, sessionId))
+                .defaultIfEmpty("0")
+                .flatMap(version -> findCompletedMessages(userId, sessionId)
+                        .collectList()
+                        .flatMap(messages -> {
+                            List<String> args = new ArrayList<>(messages.size() + 4);
+                            args.add(ttlMillis());
+                            args.add(version);
+                            args.add(String.valueOf(PUSH_CHUNK));
+                            args.add(INIT_MARKER);
+                            for (ChatMessage message : messages) {
+                                args.add(serialize(message));
+                            }
+
+                            List<ChatRequest.ChatHistoryItem> history = messages.stream()
+                                    .map(this::toHistoryItem)
+                                    .toList();
+
+                            return redisTemplate.execute(REBUILD_SCRIPT, keys(userId, sessionId), args)
+                                    .next()
+                                    .doOnNext(rebuilt -> log.debug("히스토리 캐시 재구성 - sessionId: {}, count: {}, applied: {}",
+                                            sessionId, history.size(), rebuilt == 1L))
+                                    .thenReturn(history);
+                        }));
+    }
+
+    private Mono<List<ChatRequest.ChatHistoryItem>> loadFromMongo(String userId, String sessionId) {
+        return findCompletedMessages(userId, sessionId)
+                .map(this::toHistoryItem)
+                .collectList();
+    }
+
+    private Flux<ChatMessage> findCompletedMessages(String userId, String sessionId) {
+        // write-behind 큐에 남은 이 세션의 완료 처리를 먼저 반영해야 방금 끝난 턴이 빠지지 않습니다
+        return writeBehindBuffer.flushSession(sessionId)
+                .thenMany(chatMessageRepository.findByUserIdAndSessionIdAndStatusOrderByCreatedAtAsc(
+                        userId, sessionId, ChatMessage.MessageStatus.COMPLETED));
+    }
+
+    private List<ChatRequest.ChatHistoryItem> parseEntries(List<String> entries) {
+        List<ChatRequest.ChatHistoryItem> history = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            if (INIT_MARKER.equals(entry)) {
+                continue;
+            }
+            try {
+                history.add(objectMapper.readValue(entry, ChatRequest.ChatHistoryItem.class));
+            } catch (Exception e) {
+                throw new IllegalStateException("히스토리 캐시 항목 역직렬화 실패", e);
+            }
+        }
+        return history;
+    }
+
+    private String serialize(ChatMessage message) {
+        try {
+            return objectMapper.writeValueAsString(toHistoryItem(message));
+        } catch (Exception e) {
+            throw new IllegalStateException("히스토리 캐시 항목 직렬화 실패", e);
+        }
+    }
+
+    private ChatRequest.ChatHistoryItem toHistoryItem(ChatMessage message) {
+        return ChatRequest.ChatHistoryItem.builder()
+                .userMessage(message.getUserMessage())
+                .assistantMessage(message.getAssistantMessage())
+                .build();
+    }
+
+    // 목록 키와 버전 키가 같은 슬롯에 놓이도록 해시 태그를 사용합니다
+    private String key(String userId, String sessionId) {
+        return properties.getKeyPrefix() + "{" + userId + ":" + sessionId + "}";
+    }
+
+    private String versionKey(String userId, String sessionId) {
+        return key(userId, sessionId) + ":version";
+    }
+
+    private List<String> keys(String userId, String sessionId) {
+        return List.of(key(userId, sessionId), versionKey(userId, sessionId));
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(properties.getTtl().toMillis());
+    }
+}
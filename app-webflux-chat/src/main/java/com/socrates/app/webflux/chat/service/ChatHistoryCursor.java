@@ -0,0 +1,47 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 채팅 기록 키셋 페이지네이션 위치 (createdAt, _id).
+ * 클라이언트에는 내부 형식을 드러내지 않도록 base64url로 인코딩한 문자열로 전달합니다.
+ */
+public record ChatHistoryCursor(LocalDateTime createdAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static ChatHistoryCursor after(ChatMessage message) {
+        return new ChatHistoryCursor(message.getCreatedAt(), message.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 형식이 맞지 않으면 null을 반환합니다.
+     */
+    public static ChatHistoryCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                return null;
+            }
+            return new ChatHistoryCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -5,18 +5,33 @@ import com.socrates.app.webflux.chat.dto.ChatRequest;
 import com.socrates.app.webflux.chat.repository.ChatMessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatMessageService {
 
+    private static final Set<ChatMessage.MessageStatus> IN_PROGRESS =
+            Set.of(ChatMessage.MessageStatus.PENDING, ChatMessage.MessageStatus.STREAMING);
+
     private final ChatMessageRepository chatMessageRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ChatHistoryCacheService chatHistoryCacheService;
+    private final ChatMessageWriteBehindBuffer writeBehindBuffer;
 
     public Mono<ChatMessage> savePendingMessage(ChatRequest request) {
         ChatMessage message = ChatMessage.builder()
@@ -27,50 +42,206 @@ public class ChatMessageService {
                 .status(ChatMessage.MessageStatus.PENDING)
                 .build();
 
+        if (writeBehindBuffer.isEnabled()) {
+            // write-behind 모드에서는 id를 미리 발급해 이후 상태 변경과 연결합니다.
+            message.setId(new ObjectId().toHexString());
+            return writeBehindBuffer.insert(message)
+                    .thenReturn(message)
+                    .doOnSuccess(saved -> log.debug("대기 중 메시지 큐 적재 완료: {}", saved.getId()));
+        }
+
         return chatMessageRepository.save(message)
                 .doOnSuccess(saved -> log.debug("대기 중 메시지 저장 완료: {}", saved.getId()));
     }
 
-    public Mono<ChatMessage> updateCompletedMessage(String messageId, String assistantMessage) {
-        return updateCompletedMessage(messageId, assistantMessage, false);
+    public Mono<Boolean> markStreaming(String messageId) {
+        Update update = new Update().set("status", ChatMessage.MessageStatus.STREAMING);
+
+        Mono<Boolean> direct = mongoTemplate.updateFirst(
+                        byIdAndStatus(messageId, Set.of(ChatMessage.MessageStatus.PENDING)),
+                        update,
+                        ChatMessage.class)
+                .map(result -> result.getModifiedCount() > 0);
+
+        return writeBehindBuffer.transition(messageId,
+                        queued -> guarded(queued, Set.of(ChatMessage.MessageStatus.PENDING),
+                                message -> message.setStatus(ChatMessage.MessageStatus.STREAMING)),
+                        direct)
+                .doOnSuccess(updated -> log.debug("스트리밍 상태 전환 - id: {}, updated: {}", messageId, updated));
+    }
+
+    public Mono<Boolean> checkpointPartialMessage(String messageId, String partialMessage) {
+        Update update = new Update().set("assistantMessage", partialMessage);
+
+        Mono<Boolean> direct = mongoTemplate.updateFirst(
+                        byIdAndStatus(messageId, Set.of(ChatMessage.MessageStatus.STREAMING)),
+                        update,
+                        ChatMessage.class)
+                .map(result -> result.getModifiedCount() > 0);
+
+        return writeBehindBuffer.transition(messageId,
+                        queued -> guarded(queued, Set.of(ChatMessage.MessageStatus.STREAMING),
+                                message -> message.setAssistantMessage(partialMessage)),
+                        direct)
+                .doOnSuccess(updated -> log.debug("부분 응답 저장 - id: {}, length: {}, updated: {}",
+                        messageId, partialMessage.length(), updated));
+    }
+
+    public Mono<ChatMessage> updateCompletedMessage(ChatMessage message, String assistantMessage) {
+        return updateCompletedMessage(message, assistantMessage, false);
+    }
+
+    public Mono<ChatMessage> updateCompletedMessage(ChatMessage message, String assistantMessage, boolean isComplete) {
+        String messageId = message.getId();
+        LocalDateTime completedAt = LocalDateTime.now();
+        Update update = new Update()
+                .set("assistantMessage", assistantMessage)
+                .set("completedAt", completedAt)
+                .set("status", ChatMessage.MessageStatus.COMPLETED)
+                .set("isComplete", isComplete);
+
+        Mono<ChatMessage> direct = mongoTemplate.findAndModify(
+                byIdAndStatus(messageId, IN_PROGRESS),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                ChatMessage.class);
+
+        Mono<ChatMessage> completed = writeBehindBuffer.transition(messageId,
+                queued -> {
+                    if (!IN_PROGRESS.contains(queued.getStatus())) {
+                        return null;
+                    }
+                    queued.setAssistantMessage(assistantMessage);
+                    queued.setCompletedAt(completedAt);
+                    queued.setStatus(ChatMessage.MessageStatus.COMPLETED);
+                    queued.setIsComplete(isComplete);
+                    return queued.toBuilder().build();
+                },
+                direct);
+
+        return completed
+                .flatMap(saved -> chatHistoryCacheService.append(saved).thenReturn(saved))
+                .doOnSuccess(saved -> {
+                    if (saved == null) {
+                        log.warn("완료 상태로 전환할 수 없는 메시지: {}", messageId);
+                    } else {
+                        log.debug("완료된 메시지 업데이트 완료: {}, isComplete: {}", saved.getId(), saved.getIsComplete());
+                    }
+                });
     }
 
-    public Mono<ChatMessage> updateCompletedMessage(String messageId, String assistantMessage, boolean isComplete) {
-        return chatMessageRepository.findById(messageId)
-                .flatMap(message -> {
-                    message.setAssistantMessage(assistantMessage);
-                    message.setCompletedAt(LocalDateTime.now());
-                    message.setStatus(ChatMessage.MessageStatus.COMPLETED);
-                    message.setIsComplete(isComplete);
-                    return chatMessageRepository.save(message);
-                })
-                .doOnSuccess(saved -> log.debug("완료된 메시지 업데이트 완료: {}, isComplete: {}", saved.getId(), saved.getIsComplete()));
+    /**
+     * 진행 중(PENDING/STREAMING)인 메시지만 FAILED로 전환하므로,
+     * 늦게 도착한 실패 처리가 이미 COMPLETED 된 메시지를 덮어쓰지 않습니다.
+     */
+    public Mono<Boolean> updateFailedMessage(String messageId) {
+        return terminate(messageId, ChatMessage.MessageStatus.FAILED, null);
     }
 
-    public Mono<ChatMessage> updateFailedMessage(String messageId) {
-        return chatMessageRepository.findById(messageId)
-                .flatMap(message -> {
-                    message.setStatus(ChatMessage.MessageStatus.FAILED);
-                    message.setCompletedAt(LocalDateTime.now());
-                    return chatMessageRepository.save(message);
-                })
-                .doOnSuccess(saved -> log.debug("실패한 메시지 업데이트 완료: {}", saved.getId()));
+    /**
+     * 클라이언트 연결 종료로 중단된 메시지를 CANCELLED로 전환합니다.
+     *
+     * @param partialMessage 중단 시점까지 생성된 응답. 비어 있으면 기존 값을 유지합니다.
+     */
+    public Mono<Boolean> updateCancelledMessage(String messageId, String partialMessage) {
+        return terminate(messageId, ChatMessage.MessageStatus.CANCELLED, partialMessage);
+    }
+
+    private Mono<Boolean> terminate(String messageId, ChatMessage.MessageStatus status, String partialMessage) {
+        LocalDateTime completedAt = LocalDateTime.now();
+        boolean hasPartial = partialMessage != null && !partialMessage.isEmpty();
+        Update update = new Update()
+                .set("status", status)
+                .set("completedAt", completedAt);
+        if (hasPartial) {
+            update.set("assistantMessage", partialMessage);
+        }
+
+        Mono<Boolean> direct = mongoTemplate.updateFirst(
+                        byIdAndStatus(messageId, IN_PROGRESS),
+                        update,
+                        ChatMessage.class)
+                .map(result -> result.getModifiedCount() > 0);
+
+        return writeBehindBuffer.transition(messageId,
+                        queued -> guarded(queued, IN_PROGRESS, message -> {
+                            message.setStatus(status);
+                            message.setCompletedAt(completedAt);
+                            if (hasPartial) {
+                                message.setAssistantMessage(partialMessage);
+                            }
+                        }),
+                        direct)
+                .doOnSuccess(updated -> log.debug("메시지 종료 상태 전환 - id: {}, status: {}, updated: {}",
+                        messageId, status, updated));
+    }
+
+    /**
+     * 아직 write-behind 큐에 있는 메시지에 상태 조건을 확인해 변경을 적용합니다.
+     */
+    private static Boolean guarded(ChatMessage message, Set<ChatMessage.MessageStatus> expectedStatuses,
+                                   Consumer<ChatMessage> mutation) {
+        if (!expectedStatuses.contains(message.getStatus())) {
+            return false;
+        }
+        mutation.accept(message);
+        return true;
+    }
+
+    /**
+     * 조회 대상(메시지/사용자/세션)의 write-behind 쓰기만 먼저 반영한 뒤 조회합니다. 아래 조회 메서드도 모두 같습니다.
+     */
+    public Mono<ChatMessage> findById(String messageId) {
+        return writeBehindBuffer.flushMessage(messageId)
+                .then(chatMessageRepository.findById(messageId));
     }
 
     public Flux<ChatMessage> getMessagesByUserAndSession(String userId, String sessionId) {
-        return chatMessageRepository.findByUserIdAndSessionIdOrderByCreatedAtDesc(userId, sessionId);
+        return writeBehindBuffer.flushSession(sessionId)
+                .thenMany(chatMessageRepository.findByUserIdAndSessionIdOrderByCreatedAtDesc(userId, sessionId));
     }
 
     public Flux<ChatMessage> getMessagesByUser(String userId) {
-        return chatMessageRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return writeBehindBuffer.flushUser(userId)
+                .thenMany(chatMessageRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
     public Flux<ChatMessage> findByUserIdAndSessionId(String userId, String sessionId) {
-        return chatMessageRepository.findByUserIdAndSessionIdOrderByCreatedAtDesc(userId, sessionId);
+        return writeBehindBuffer.flushSession(sessionId)
+                .thenMany(chatMessageRepository.findByUserIdAndSessionIdOrderByCreatedAtDesc(userId, sessionId));
     }
 
     public Flux<ChatMessage> getChatHistory(String sessionId) {
-        return chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+        return writeBehindBuffer.flushSession(sessionId)
+                .thenMany(chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId));
     }
-}
 
+    /**
+     * (createdAt, _id) 키셋 기준으로 cursor 이후의 메시지를 오래된 순으로 limit개 조회합니다. limit이 0이면 전부 조회합니다.
+     * preview이면 assistantMessage 등 큰 필드를 제외하고 목록 표시에 필요한 필드만 가져옵니다.
+     */
+    public Flux<ChatMessage> getChatHistoryPage(String sessionId, ChatHistoryCursor cursor, int limit, boolean preview) {
+        Criteria criteria = Criteria.where("sessionId").is(sessionId);
+        if (cursor != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").gt(cursor.createdAt()),
+                    Criteria.where("createdAt").is(cursor.createdAt()).and("id").gt(cursor.id()));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id")));
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        if (preview) {
+            query.fields().include("id", "userMessage", "createdAt", "status", "isComplete");
+        }
+        return writeBehindBuffer.flushSession(sessionId)
+                .thenMany(mongoTemplate.find(query, ChatMessage.class));
+    }
+
+    private Query byIdAndStatus(String messageId, Set<ChatMessage.MessageStatus> expectedStatuses) {
+        return Query.query(Criteria.where("id").is(messageId)
+                .and("status").in(expectedStatuses));
+    }
+}
@@ -0,0 +1,372 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.config.ChatPersistenceProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 새 chat_messages 문서의 insert를 제한된 메모리 큐에 모았다가 bulk write로 반영하는 write-behind 버퍼입니다.
+ * 큐에 있는 동안 일어난 상태 전환은 {@link #transition}으로 큐의 문서에 바로 적용하므로 상태 조건을 정확히 판정할 수 있고,
+ * 이미 기록된 메시지의 전환은 호출자가 넘긴 조건부 쓰기로 MongoDB에 직접 반영합니다.
+ * 문서는 _id 기준 upsert로 기록하므로 일부만 반영된 배치를 재시도해도 중복 키 오류가 나지 않으며,
+ * 재시도까지 실패한 배치는 큐 앞에 다시 넣고 오류를 flush 호출자에게 전달합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageWriteBehindBuffer {
+
+    private static final Duration FLUSH_POLL_INTERVAL = Duration.ofMillis(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ChatPersistenceProperties persistenceProperties;
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    // 아직 bulk write에 들어가지 않은 문서 (insert 순서 유지)
+    private final LinkedHashMap<String, ChatMessage> queued = new LinkedHashMap<>();
+    // bulk write가 진행 중인 문서와 그 배치의 완료 신호
+    private final Map<String, InFlight> writing = new HashMap<>();
+    private boolean enabled;
+    private Disposable flushTimer;
+
+    @PostConstruct
+    public void start() {
+        ChatPersistenceProperties.WriteBehind properties = persistenceProperties.getWriteBehind();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        enabled = true;
+        flushTimer = Flux.interval(properties.getFlushInterval())
+                .subscribe(tick -> triggerFlush());
+        log.info("chat_messages write-behind 활성화 - capacity: {}, batchSize: {}, interval: {}",
+                properties.getQueueCapacity(), properties.getBatchSize(), properties.getFlushInterval());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 큐가 가득 차면 큐가 비워질 때까지 호출자를 지연시킵니다(backpressure).
+     * 이후 전환이 호출자의 객체를 바꾸지 않도록 복사본을 큐에 넣습니다.
+     */
+    public Mono<Void> insert(ChatMessage message) {
+        ChatPersistenceProperties.WriteBehind properties = persistenceProperties.getWriteBehind();
+        ChatMessage document = message.toBuilder().build();
+
+        return Mono.defer(() -> {
+                    int size;
+                    synchronized (this) {
+                        if (queued.size() >= properties.getQueueCapacity()) {
+                            size = -1;
+                        } else {
+                            queued.put(document.getId(), document);
+                            size = queued.size();
+                        }
+                    }
+                    if (size < 0) {
+                        log.debug("write-behind 큐 포화, flush 대기 - messageId: {}", document.getId());
+                        return flush().then(Mono.<Void>error(new QueueFullException()));
+                    }
+                    if (size >= properties.getBatchSize()) {
+                        triggerFlush();
+                    }
+                    return Mono.<Void>empty();
+                })
+                .retryWhen(Retry.indefinitely().filter(QueueFullException.class::isInstance));
+    }
+
+    /**
+     * 메시지의 상태 전환을 적용합니다.
+     * 문서가 아직 큐에 있으면 queuedTransition을 큐의 문서에 바로 적용하고(null 반환은 조건 불일치),
+     * 기록 중이면 기록이 끝난 뒤 다시 판단하며, 이미 기록되었으면 direct를 실행합니다.
+     */
+    public <T> Mono<T> transition(String messageId, Function<ChatMessage, T> queuedTransition, Mono<T> direct) {
+        if (!isEnabled()) {
+            return direct;
+        }
+        return Mono.defer(() -> {
+            InFlight inFlight;
+            synchronized (this) {
+                ChatMessage document = queued.get(messageId);
+                if (document != null) {
+                    return Mono.justOrEmpty(queuedTransition.apply(document));
+                }
+                inFlight = writing.get(messageId);
+            }
+            if (inFlight != null) {
+                // 기록이 실패해 큐로 돌아갔을 수도 있으므로 끝난 뒤 처음부터 다시 판단합니다
+                return inFlight.done().asMono()
+                        .then(Mono.defer(() -> transition(messageId, queuedTransition, direct)));
+            }
+            return direct;
+        });
+    }
+
+    /**
+     * 호출 시점까지 큐에 쌓인 쓰기를 모두 MongoDB에 반영합니다. 진행 중인 flush가 있으면 끝날 때까지 기다립니다.
+     */
+    public Mono<Void> flush() {
+        if (!isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            int count;
+            synchronized (this) {
+                count = queued.size();
+            }
+            if (count == 0 && !flushing.get()) {
+                return Mono.empty();
+            }
+            return Mono.usingWhen(
+                    acquireFlushing(),
+                    acquired -> writeQueued(count),
+                    acquired -> Mono.fromRunnable(this::releaseFlushing));
+        });
+    }
+
+    /**
+     * 조회 전에 해당 세션의 문서만 반영합니다. 다른 세션의 쓰기는 기다리지 않습니다.
+     */
+    public Mono<Void> flushSession(String sessionId) {
+        return flushMatching(document -> Objects.equals(sessionId, document.getSessionId()));
+    }
+
+    public Mono<Void> flushUser(String userId) {
+        return flushMatching(document -> Objects.equals(userId, document.getUserId()));
+    }
+
+    public Mono<Void> flushMessage(String messageId) {
+        return flushMatching(document -> Objects.equals(messageId, document.getId()));
+    }
+
+    private Mono<Void> flushMatching(Predicate<ChatMessage> filter) {
+        if (!isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            List<Mono<Void>> pending = new ArrayList<>();
+            Batch batch;
+            synchronized (this) {
+                for (InFlight inFlight : writing.values()) {
+                    if (filter.test(inFlight.document())) {
+                        pending.add(inFlight.done().asMono());
+                    }
+                }
+                batch = take(filter, Integer.MAX_VALUE);
+            }
+            if (pending.isEmpty() && batch.isEmpty()) {
+                return Mono.empty();
+            }
+            // 기다린 배치가 실패해 큐로 돌아왔으면 다음 반복에서 직접 기록합니다
+            return Mono.when(pending)
+                    .then(writeBatch(batch))
+                    .then(flushMatching(filter));
+        });
+    }
+
+    private Mono<Boolean> acquireFlushing() {
+        return Mono.fromSupplier(() -> flushing.compareAndSet(false, true))
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(FLUSH_POLL_INTERVAL));
+    }
+
+    private void releaseFlushing() {
+        flushing.set(false);
+        int size;
+        synchronized (this) {
+            size = queued.size();
+        }
+        if (size >= persistenceProperties.getWriteBehind().getBatchSize()) {
+            triggerFlush();
+        }
+    }
+
+    private void triggerFlush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        // 실패한 배치는 큐로 돌아갔으므로 다음 주기에 다시 기록합니다
+        writeQueued(persistenceProperties.getWriteBehind().getBatchSize())
+                .onErrorComplete()
+                .doFinally(signal -> releaseFlushing())
+                .subscribe();
+    }
+
+    /**
+     * 큐 앞에서부터 최대 count개의 문서를 배치 단위로 순서대로 반영합니다. flushing을 획득한 상태에서만 호출합니다.
+     */
+    private Mono<Void> writeQueued(int count) {
+        return Mono.defer(() -> {
+            if (count <= 0) {
+                return Mono.empty();
+            }
+            Batch batch;
+            synchronized (this) {
+                batch = take(document -> true, Math.min(count, persistenceProperties.getWriteBehind().getBatchSize()));
+            }
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+            return writeBatch(batch).then(writeQueued(count - batch.documents().size()));
+        });
+    }
+
+    /**
+     * 조건에 맞는 문서를 큐에서 꺼내 기록 중으로 옮깁니다. 동기화 블록 안에서만 호출합니다.
+     */
+    private Batch take(Predicate<ChatMessage> filter, int max) {
+        Batch batch = new Batch(new ArrayList<>(), Sinks.empty());
+        Iterator<ChatMessage> iterator = queued.values().iterator();
+        while (iterator.hasNext() && batch.documents().size() < max) {
+            ChatMessage document = iterator.next();
+            if (filter.test(document)) {
+                iterator.remove();
+                batch.documents().add(document);
+                writing.put(document.getId(), new InFlight(document, batch.done()));
+            }
+        }
+        return batch;
+    }
+
+    private Mono<Void> writeBatch(Batch batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        List<ChatMessage> documents = batch.documents();
+
+        return Mono.defer(() -> upsert(documents).execute())
+                .retryWhen(Retry.backoff(2, Duration.ofMillis(100)))
+                .doOnSuccess(result -> {
+                    log.debug("write-behind flush 완료 - writes: {}", documents.size());
+                    finish(batch, false);
+                })
+                .onErrorResume(error -> {
+                    log.error("write-behind flush 실패, 큐에 다시 적재 - writes: {}, error: {}",
+                            documents.size(), error.getMessage());
+                    finish(batch, true);
+                    return Mono.error(error);
+                })
+                .then();
+    }
+
+    private ReactiveBulkOperations upsert(List<ChatMessage> documents) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class);
+        for (ChatMessage document : documents) {
+            bulk.replaceOne(Query.query(Criteria.where("id").is(document.getId())),
+                    document, FindAndReplaceOptions.options().upsert());
+        }
+        return bulk;
+    }
+
+    /**
+     * 기록 중 표시를 지우고 기다리던 전환/조회를 깨웁니다. 실패했으면 문서를 원래 순서대로 큐 앞에 되돌립니다.
+     */
+    private void finish(Batch batch, boolean requeue) {
+        synchronized (this) {
+            for (ChatMessage document : batch.documents()) {
+                writing.remove(document.getId());
+            }
+            if (requeue) {
+                LinkedHashMap<String, ChatMessage> rest = new LinkedHashMap<>(queued);
+                queued.clear();
+                batch.documents().forEach(document -> queued.put(document.getId(), document));
+                queued.putAll(rest);
+            }
+        }
+        batch.done().tryEmitEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+        flushTimer.dispose();
+
+        Duration timeout = persistenceProperties.getWriteBehind().getShutdownTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        // 진행 중인 flush가 끝날 때까지 기다린 뒤 남은 큐를 모두 기록합니다.
+        while (!flushing.compareAndSet(false, true)) {
+            if (System.nanoTime() > deadline) {
+                log.warn("write-behind 종료 대기 시간 초과 - 남은 쓰기: {}", queuedSize());
+                return;
+            }
+            Thread.onSpinWait();
+        }
+
+        int flushed = 0;
+        while (true) {
+            Batch batch;
+            synchronized (this) {
+                batch = take(document -> true, persistenceProperties.getWriteBehind().getBatchSize());
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                finish(batch, true);
+                log.warn("write-behind 종료 flush 시간 초과 - 남은 쓰기: {}", queuedSize());
+                return;
+            }
+            try {
+                writeBatch(batch).block(Duration.ofNanos(remaining));
+            } catch (RuntimeException e) {
+                log.error("write-behind 종료 flush 실패 - 남은 쓰기: {}", queuedSize());
+                return;
+            }
+            flushed += batch.documents().size();
+        }
+        log.info("write-behind 종료 flush 완료 - writes: {}", flushed);
+    }
+
+    private synchronized int queuedSize() {
+        return queued.size();
+    }
+
+    private record Batch(List<ChatMessage> documents, Sinks.Empty<Void> done) {
+
+        private boolean isEmpty() {
+            return documents.isEmpty();
+        }
+    }
+
+    private record InFlight(ChatMessage document, Sinks.Empty<Void> done) {
+    }
+
+    private static final class QueueFullException extends RuntimeException {
+
+        private QueueFullException() {
+            super(null, null, false, false);
+        }
+    }
+}
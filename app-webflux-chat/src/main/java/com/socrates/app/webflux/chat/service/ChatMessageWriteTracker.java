@@ -0,0 +1,64 @@
+package com.socrates.app.webflux.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 구독자가 사라진 뒤(클라이언트 연결 종료 등)에도 끝까지 수행해야 하는 상태 쓰기를 추적합니다.
+ * 진행 중인 쓰기 수를 지표로 노출하고, 종료 시에는 남은 쓰기가 끝날 때까지 기다립니다.
+ */
+@Slf4j
+@Component
+public class ChatMessageWriteTracker {
+
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Set<Disposable> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter failures;
+
+    public ChatMessageWriteTracker(MeterRegistry meterRegistry) {
+        Gauge.builder("chat.message.tracked.writes", inFlight, Set::size)
+                .description("연결 종료 후 진행 중인 메시지 상태 쓰기 수")
+                .register(meterRegistry);
+        this.failures = Counter.builder("chat.message.tracked.writes.failed")
+                .description("실패한 연결 종료 후 메시지 상태 쓰기 수")
+                .register(meterRegistry);
+    }
+
+    public void track(String description, Mono<?> write) {
+        Disposable.Swap slot = Disposables.swap();
+        inFlight.add(slot);
+        slot.update(write
+                .timeout(WRITE_TIMEOUT)
+                .doFinally(signal -> inFlight.remove(slot))
+                .subscribe(
+                        result -> log.debug("{} 완료", description),
+                        error -> {
+                            failures.increment();
+                            log.warn("{} 실패: {}", description, error.getMessage());
+                        }));
+    }
+
+    @PreDestroy
+    public void awaitPendingWrites() throws InterruptedException {
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        if (!inFlight.isEmpty()) {
+            log.warn("종료 전에 끝나지 않은 메시지 상태 쓰기: {}", inFlight.size());
+        }
+    }
+}
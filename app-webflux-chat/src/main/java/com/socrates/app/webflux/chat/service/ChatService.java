@@ -1,22 +1,29 @@
 package com.socrates.app.webflux.chat.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socrates.app.webflux.chat.admission.ChatStreamAdmission;
+import com.socrates.app.webflux.chat.admission.SessionTurnQueue;
+import com.socrates.app.webflux.chat.admission.SessionTurnRejectedException;
 import com.socrates.app.webflux.chat.client.FastApiChatClient;
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimitExceededException;
+import com.socrates.app.webflux.chat.client.resilience.UpstreamUnavailableException;
+import com.socrates.app.webflux.chat.config.ChatStreamProperties;
+import com.socrates.app.webflux.chat.context.ChatContextAssembler;
 import com.socrates.app.webflux.chat.domain.ChatMessage;
 import com.socrates.app.webflux.chat.dto.ChatRequest;
 import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
 import com.socrates.app.webflux.chat.dto.FastApiChatResponse;
 import com.socrates.app.webflux.chat.dto.SseEvent;
+import com.socrates.app.webflux.chat.metrics.ChatStreamMetrics;
+import com.socrates.app.webflux.chat.sse.SseEventId;
+import com.socrates.app.webflux.chat.sse.SseReplayBuffer;
+import com.socrates.app.webflux.chat.sse.SseTextSplitter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.List;
 
 @Slf4j
@@ -26,143 +33,291 @@ public class ChatService {
 
     private final FastApiChatClient fastApiChatClient;
     private final ChatMessageService chatMessageService;
-    private final ObjectMapper objectMapper;
+    private final ChatHistoryCacheService chatHistoryCacheService;
+    private final ChatContextAssembler chatContextAssembler;
+    private final ReportPreGenerationWorker reportPreGenerationWorker;
+    private final ChatStreamProperties streamProperties;
+    private final ChatStreamMetrics chatStreamMetrics;
+    private final ChatMessageWriteTracker chatMessageWriteTracker;
+    private final SseReplayBuffer sseReplayBuffer;
+    private final SessionTurnQueue sessionTurnQueue;
+    private final ChatStreamResumeService chatStreamResumeService;
+    private final ChatStreamAdmission chatStreamAdmission;
 
-    public Flux<ServerSentEvent<String>> streamChat(ChatRequest request) {
+    public Flux<SseEvent> streamChat(ChatRequest request) {
         log.info("사용자 채팅 스트림 처리 시작: {}", request.getUserId());
 
-        return chatMessageService.savePendingMessage(request)
-                .flatMapMany(savedMessage -> processResponse(request, savedMessage))
+        // 같은 세션의 턴은 앞선 턴의 응답이 저장된 뒤에 시작해야 히스토리가 일관됩니다
+        return sessionTurnQueue.acquire(request.getSessionId(), request.getRequestId())
+                .flatMapMany(turn -> turn.isDuplicate()
+                        ? joinDuplicateTurn(request, turn)
+                        : runTurn(request, turn))
+                .onErrorResume(SessionTurnRejectedException.class, error -> Flux.just(SseEvent.error("SESSION_BUSY",
+                        "이전 질문에 대한 답변이 진행 중입니다. 답변이 끝난 뒤 다시 시도해 주세요.")))
                 .doOnError(error -> log.error("채팅 스트림 오류: {}", error.getMessage()))
                 .doOnComplete(() -> log.info("SSE 스트림 완료: {}", request.getUserId()));
     }
 
-    private Flux<ServerSentEvent<String>> processResponse(
+    private Flux<SseEvent> runTurn(ChatRequest request, SessionTurnQueue.Turn turn) {
+        Mono<FastApiChatRequest> prepared = chatStreamMetrics.stage("history_load", loadChatHistory(request))
+                .flatMap(loaded -> chatStreamMetrics.stage("context_assemble", chatContextAssembler.assemble(loaded)));
+
+        // 히스토리는 COMPLETED 메시지만 조회하므로 방금 저장하는 PENDING 메시지와 무관합니다.
+        // pending 저장과 히스토리 조회를 동시에 실행해 턴마다 MongoDB 왕복 한 번을 줄입니다.
+        return chatStreamMetrics.stage("preflight", Mono.zip(
+                        chatStreamMetrics.stage("pending_save", chatMessageService.savePendingMessage(request)),
+                        prepared))
+                .doOnError(error -> turn.release())
+                .doOnCancel(turn::release)
+                .flatMapMany(preflight -> {
+                    ChatMessage savedMessage = preflight.getT1();
+                    turn.started(savedMessage.getId());
+                    // 턴은 HTTP 응답이 아니라 응답 생성이 끝날 때 반납합니다 (재개 대기 중에도 유지)
+                    return sseReplayBuffer.attach(savedMessage.getId(),
+                            processResponse(request, savedMessage, preflight.getT2())
+                                    .doFinally(signal -> turn.release()));
+                });
+    }
+
+    /**
+     * 진행 중인 턴과 같은 메시지가 다시 들어오면(중복 전송) 모델을 다시 호출하지 않고 그 턴의 응답을 처음부터 함께 받습니다.
+     */
+    private Flux<SseEvent> joinDuplicateTurn(ChatRequest request, SessionTurnQueue.Turn turn) {
+        return turn.originalMessageId()
+                .flatMapMany(messageId -> chatStreamResumeService.resume(
+                        new SseEventId(messageId, 0, 0), request.getUserId(), request.getSessionId()));
+    }
+
+    private Flux<SseEvent> processResponse(
             ChatRequest request,
-            ChatMessage savedMessage) {
-
-        return loadChatHistory(request)
-                .map(this::toFastApiRequest)
-                .flatMapMany(fastApiRequest ->
-                        fastApiChatClient.chat(fastApiRequest)
-                                .flatMapMany(response -> {
-                                    if (Boolean.TRUE.equals(response.getIsCompleted())) {
-                                        return handleCompletedSession(request, savedMessage, response);
-                                    } else {
-                                        return saveAndStreamResponse(savedMessage, response);
-                                    }
-                                })
-                                .onErrorResume(error -> handleError(savedMessage, error))
-                );
+            ChatMessage savedMessage,
+            FastApiChatRequest fastApiRequest) {
+
+        StreamingAccumulator accumulator = new StreamingAccumulator(
+                streamProperties.getCheckpointInterval(),
+                streamProperties.getCheckpointChars());
+
+        Flux<SseEvent> response = streamProperties.getMode() == ChatStreamProperties.StreamMode.UPSTREAM
+                ? streamUpstreamResponse(request, savedMessage, fastApiRequest, accumulator)
+                : bufferedResponse(request, savedMessage, fastApiRequest);
+
+        // 클라이언트가 연결을 끊고 재개 대기 시간(chat.stream.resume.detach-grace) 안에 돌아오지 않으면
+        // 취소 신호가 FastAPI 요청까지 전파되어 커넥션이 반납되고, 메시지는 부분 응답과 함께 CANCELLED로 기록됩니다.
+        return response.doOnCancel(() -> handleCancel(savedMessage, accumulator));
     }
 
-    private Mono<ChatRequest> loadChatHistory(ChatRequest request) {
-        return chatMessageService.findByUserIdAndSessionId(request.getUserId(), request.getSessionId())
-                .filter(msg -> msg.getStatus() == ChatMessage.MessageStatus.COMPLETED)
-                .map(msg -> ChatRequest.ChatHistoryItem.builder()
-                        .userMessage(msg.getUserMessage())
-                        .assistantMessage(msg.getAssistantMessage())
-                        .build())
-                .collectList()
-                .map(history -> {
-                    request.setHistory(history);
-                    log.info("채팅 히스토리 로드 완료 - sessionId: {}, count: {}", request.getSessionId(), history.size());
-                    return request;
-                });
+    private Flux<SseEvent> bufferedResponse(
+            ChatRequest request,
+            ChatMessage savedMessage,
+            FastApiChatRequest fastApiRequest) {
+
+        return chatStreamMetrics.fastapi(fastApiChatClient.chat(fastApiRequest))
+                .flatMapMany(response -> saveAndStreamResponse(request, savedMessage, response))
+                .onErrorResume(error -> handleError(savedMessage, error));
     }
 
-    private FastApiChatRequest toFastApiRequest(ChatRequest request) {
-        List<String> userInputList = new ArrayList<>();
+    private Flux<SseEvent> streamUpstreamResponse(
+            ChatRequest request,
+            ChatMessage savedMessage,
+            FastApiChatRequest fastApiRequest,
+            StreamingAccumulator accumulator) {
 
-        if (request.getHistory() != null) {
-            for (ChatRequest.ChatHistoryItem item : request.getHistory()) {
-                userInputList.add(item.getUserMessage());
-                userInputList.add(item.getAssistantMessage());
-            }
-        }
+        // STREAMING 전환은 FastAPI 호출과 동시에 진행하고, 부분 응답 저장은 전환이 끝난 뒤에만 실행합니다
+        Mono<Boolean> streaming = chatMessageService.markStreaming(savedMessage.getId()).cache();
 
-        userInputList.add(request.getMessage());
+        return Flux.merge(
+                        streaming.then(Mono.<FastApiChatResponse>empty()),
+                        chatStreamMetrics.fastapi(fastApiChatClient.streamChat(fastApiRequest)))
+                .concatMap(response -> {
+                    String chunk = extractContent(response);
+                    accumulator.append(chunk, Boolean.TRUE.equals(response.getIsCompleted()));
 
-        FastApiChatRequest.DataWrapper dataWrapper = FastApiChatRequest.DataWrapper.builder()
-                .user_input(userInputList)
-                .build();
+                    Flux<SseEvent> events = chunk.isEmpty()
+                            ? Flux.empty()
+                            : Flux.just(SseEvent.chatMessage(chunk));
 
-        return FastApiChatRequest.builder()
-                .data(dataWrapper)
-                .build();
+                    if (!accumulator.isCheckpointDue()) {
+                        return events;
+                    }
+                    String partial = accumulator.checkpoint();
+                    return events.concatWith(streaming
+                            .then(chatMessageService.checkpointPartialMessage(savedMessage.getId(), partial))
+                            .then(Mono.empty()));
+                })
+                .concatWith(Flux.defer(() -> completeStreamingResponse(request, savedMessage, accumulator)))
+                .onErrorResume(error -> handleError(savedMessage, error));
     }
 
-    private Flux<ServerSentEvent<String>> handleCompletedSession(
+    private Flux<SseEvent> completeStreamingResponse(
             ChatRequest request,
             ChatMessage savedMessage,
-            FastApiChatResponse response) {
+            StreamingAccumulator accumulator) {
 
-        log.info("세션 완료 감지 - sessionId: {}", request.getSessionId());
+        boolean sessionCompleted = accumulator.isSessionCompleted();
+        chatStreamMetrics.recordChunks(accumulator.chunks());
 
-        ServerSentEvent<String> chatEndEvent = createChatEndEvent(request.getSessionId());
+        return chatMessageService.updateCompletedMessage(
+                        savedMessage,
+                        accumulator.content(),
+                        sessionCompleted
+                )
+                .hasElement()
+                .flatMapMany(saved -> {
+                    if (!saved) {
+                        return notCompleted(savedMessage);
+                    }
+                    turnCompleted(request, sessionCompleted);
+                    return sessionCompleted ? endSession(request) : Flux.empty();
+                });
+    }
 
-        return saveAndStreamResponse(savedMessage, response)
-                .concatWith(Flux.just(chatEndEvent));
+    private String extractContent(FastApiChatResponse response) {
+        return response.getData() != null && response.getData().getUserFacingMessage() != null
+                ? response.getData().getUserFacingMessage()
+                : "";
     }
 
+    private Mono<ChatRequest> loadChatHistory(ChatRequest request) {
+        return chatHistoryCacheService.loadHistory(request.getUserId(), request.getSessionId())
+                .map(history -> {
+                    request.setHistory(history);
+                    log.info("채팅 히스토리 로드 완료 - sessionId: {}, count: {}", request.getSessionId(), history.size());
+                    return request;
+                });
+    }
 
-    private Flux<ServerSentEvent<String>> saveAndStreamResponse(
+    private Flux<SseEvent> saveAndStreamResponse(
+            ChatRequest request,
             ChatMessage savedMessage,
             FastApiChatResponse response) {
 
-        String content = response.getData() != null && response.getData().getUserFacingMessage() != null
-                ? response.getData().getUserFacingMessage()
-                : "";
+        String content = extractContent(response);
+        List<String> words = SseTextSplitter.splitWords(content);
+        boolean sessionCompleted = Boolean.TRUE.equals(response.getIsCompleted());
 
         return chatMessageService.updateCompletedMessage(
-                        savedMessage.getId(),
+                        savedMessage,
                         content,
-                        Boolean.TRUE.equals(response.getIsCompleted())
+                        sessionCompleted
                 )
-                .thenMany(splitContentToWords(content))
-                .map(this::toMessageEvent);
+                .hasElement()
+                .flatMapMany(saved -> {
+                    if (!saved) {
+                        return notCompleted(savedMessage);
+                    }
+                    turnCompleted(request, sessionCompleted);
+                    chatStreamMetrics.recordChunks(words.size());
+
+                    Flux<SseEvent> events = Flux.fromIterable(words).map(SseEvent::chatMessage);
+                    return sessionCompleted ? events.concatWith(Flux.defer(() -> endSession(request))) : events;
+                });
     }
 
-    private Flux<String> splitContentToWords(String content) {
-        String[] words = content.split("(?<=\\s)|(?=\\s)");
-        return Flux.fromArray(words);
+    private void turnCompleted(ChatRequest request, boolean sessionCompleted) {
+        chatStreamMetrics.turnCompleted();
+        // 이어지는 턴만 우선 예약분을 쓰도록, 세션이 끝난 턴은 대화 중으로 표시하지 않습니다
+        if (!sessionCompleted) {
+            chatStreamAdmission.markActive(request.getSessionId());
+        }
     }
 
-    private Flux<ServerSentEvent<String>> handleError(ChatMessage savedMessage, Throwable error) {
-        log.error("채팅 스트림 오류 발생: {}", error.getMessage());
-        chatMessageService.updateFailedMessage(savedMessage.getId()).subscribe();
-        return Flux.error(error);
+    private Flux<SseEvent> endSession(ChatRequest request) {
+        log.info("세션 완료 감지 - sessionId: {}", request.getSessionId());
+        chatStreamMetrics.sessionEnded();
+        reportPreGenerationWorker.enqueue(request.getSessionId());
+        return Flux.just(SseEvent.chatEnd(request.getSessionId()));
+    }
+
+    /**
+     * 완료 저장 전에 메시지가 이미 종료(FAILED/CANCELLED)된 경우입니다.
+     * 저장되지 않은 턴이므로 완료 지표, chat_end, 리포트 생성 없이 error 이벤트로 끝냅니다.
+     */
+    private Flux<SseEvent> notCompleted(ChatMessage savedMessage) {
+        log.warn("완료 상태로 저장되지 않은 응답 - id: {}", savedMessage.getId());
+        return Flux.just(SseEvent.error("STREAM_FAILED", "응답 생성 중 오류가 발생했습니다. 다시 질문해 주세요."));
     }
 
-    private ServerSentEvent<String> toMessageEvent(String chunk) {
-        SseEvent event = SseEvent.chatMessage(chunk);
-        return toServerSentEvent(event);
+    private Flux<SseEvent> handleError(ChatMessage savedMessage, Throwable error) {
+        log.error("채팅 스트림 오류 발생: {}", error.getMessage());
+        chatStreamMetrics.turnFailed();
+
+        Mono<Boolean> markFailed = chatMessageService.updateFailedMessage(savedMessage.getId())
+                .onErrorResume(updateError -> {
+                    log.warn("실패 상태 저장 실패 - id: {}, error: {}", savedMessage.getId(), updateError.getMessage());
+                    return Mono.just(false);
+                });
+
+        // FastAPI를 호출하지 않고 빠르게 거절된 경우에는 연결을 끊지 않고 error 이벤트로 알립니다
+        if (error instanceof UpstreamUnavailableException unavailable) {
+            return markFailed.thenMany(Flux.just(SseEvent.error("UPSTREAM_UNAVAILABLE",
+                    "AI 서버가 일시적으로 응답하지 않습니다. " + unavailable.getRetryAfter().toSeconds() + "초 후 다시 시도해 주세요.")));
+        }
+        if (error instanceof ConcurrencyLimitExceededException) {
+            return markFailed.thenMany(Flux.just(SseEvent.error("UPSTREAM_BUSY", "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해 주세요.")));
+        }
+        return markFailed.thenMany(Flux.error(error));
     }
 
-    private ServerSentEvent<String> createChatEndEvent(String sessionId) {
-        SseEvent event = SseEvent.chatEnd(sessionId);
-        return toServerSentEvent(event);
+    private void handleCancel(ChatMessage savedMessage, StreamingAccumulator accumulator) {
+        log.info("클라이언트 연결 종료로 응답 생성 중단 - id: {}", savedMessage.getId());
+        chatStreamMetrics.turnCancelled();
+        // 구독자가 없으므로 체인에 연결할 수 없어, 추적되는 쓰기로 끝까지 수행합니다
+        chatMessageWriteTracker.track("취소 상태 저장 - id: " + savedMessage.getId(),
+                chatMessageService.updateCancelledMessage(savedMessage.getId(), accumulator.content()));
     }
 
+    /**
+     * 업스트림 청크를 누적하고, 시간/크기 기준으로 부분 응답 저장 시점을 판단합니다.
+     * concatMap 내부에서 순차적으로 접근되지만, 취소 시점에는 다른 스레드에서 읽을 수 있어 동기화합니다.
+     */
+    private static final class StreamingAccumulator {
+
+        private final StringBuilder content = new StringBuilder();
+        private final long checkpointIntervalNanos;
+        private final int checkpointChars;
+        private long lastCheckpointAt = System.nanoTime();
+        private int lastCheckpointLength;
+        private boolean sessionCompleted;
+        private int chunks;
+
+        private StreamingAccumulator(Duration checkpointInterval, int checkpointChars) {
+            this.checkpointIntervalNanos = checkpointInterval.toNanos();
+            this.checkpointChars = checkpointChars;
+        }
+
+        private synchronized void append(String chunk, boolean completed) {
+            content.append(chunk);
+            sessionCompleted |= completed;
+            if (!chunk.isEmpty()) {
+                chunks++;
+            }
+        }
 
-    private ServerSentEvent<String> toServerSentEvent(SseEvent event) {
-        try {
-            String data;
-            if (event.getData() instanceof String) {
-                data = (String) event.getData();
-            } else {
-                data = objectMapper.writeValueAsString(event.getData());
+        private synchronized boolean isCheckpointDue() {
+            int pending = content.length() - lastCheckpointLength;
+            if (pending <= 0) {
+                return false;
             }
-            return ServerSentEvent.<String>builder()
-                    .event(event.getEvent())
-                    .data(data)
-                    .build();
-        } catch (JsonProcessingException e) {
-            log.error("SSE 이벤트 JSON 변환 실패: {}", e.getMessage());
-            return ServerSentEvent.<String>builder()
-                    .event("error")
-                    .data("{\"error\": \"Failed to serialize event\"}")
-                    .build();
+            return pending >= checkpointChars
+                    || System.nanoTime() - lastCheckpointAt >= checkpointIntervalNanos;
+        }
+
+        private synchronized String checkpoint() {
+            lastCheckpointAt = System.nanoTime();
+            lastCheckpointLength = content.length();
+            return content.toString();
+        }
+
+        private synchronized String content() {
+            return content.toString();
+        }
+
+        private int chunks() {
+            return chunks;
+        }
+
+        private boolean isSessionCompleted() {
+            return sessionCompleted;
         }
     }
 }
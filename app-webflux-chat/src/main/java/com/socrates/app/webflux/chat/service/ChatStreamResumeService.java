@@ -0,0 +1,131 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.config.ChatStreamProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import com.socrates.app.webflux.chat.metrics.ChatStreamMetrics;
+import com.socrates.app.webflux.chat.sse.SseEventId;
+import com.socrates.app.webflux.chat.sse.SseReplayBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 끊긴 채팅 스트림을 Last-Event-ID 위치부터 이어서 전달합니다. 요청한 사용자/세션의 메시지만 재개할 수 있습니다.
+ * 메모리 버퍼가 남아 있으면 버퍼에서, 없으면(다른 인스턴스, 만료) 저장된 assistantMessage의 offset 이후부터 보냅니다.
+ * 저장된 메시지가 아직 생성 중이면 체크포인트를 폴링하며 늘어난 부분만 전달합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatStreamResumeService {
+
+    private final SseReplayBuffer sseReplayBuffer;
+    private final ChatMessageService chatMessageService;
+    private final ChatStreamProperties streamProperties;
+    private final ChatStreamMetrics chatStreamMetrics;
+
+    /**
+     * 메시지가 요청한 사용자와 세션의 것인지 확인한 뒤 이어서 보냅니다.
+     * 다른 사용자의 메시지는 존재 여부를 드러내지 않도록 없는 메시지와 같이 응답합니다.
+     */
+    public Flux<SseEvent> resume(SseEventId lastEventId, String userId, String sessionId) {
+        return chatMessageService.findById(lastEventId.messageId())
+                .filter(message -> Objects.equals(message.getUserId(), userId)
+                        && Objects.equals(message.getSessionId(), sessionId))
+                .flatMapMany(message -> {
+                    Flux<SseEvent> buffered = sseReplayBuffer.resume(lastEventId);
+                    if (buffered != null) {
+                        log.info("버퍼에서 스트림 재개 - messageId: {}, offset: {}", lastEventId.messageId(), lastEventId.offset());
+                        chatStreamMetrics.streamResumed("buffer");
+                        return buffered;
+                    }
+
+                    log.info("저장된 메시지에서 스트림 재개 - messageId: {}, status: {}, offset: {}",
+                            message.getId(), message.getStatus(), lastEventId.offset());
+                    chatStreamMetrics.streamResumed("stored");
+                    return resumeFromStored(message, new StoredCursor(lastEventId));
+                })
+                .switchIfEmpty(Flux.defer(() -> {
+                    log.warn("재개할 메시지 없음 - messageId: {}, sessionId: {}", lastEventId.messageId(), sessionId);
+                    chatStreamMetrics.streamResumed("not_found");
+                    return Flux.just(SseEvent.error("MESSAGE_NOT_FOUND", "이어서 받을 응답을 찾을 수 없습니다."));
+                }));
+    }
+
+    private Flux<SseEvent> resumeFromStored(ChatMessage message, StoredCursor cursor) {
+        if (!isInProgress(message)) {
+            return Flux.fromIterable(replay(message, cursor));
+        }
+
+        ChatStreamProperties.Resume resume = streamProperties.getResume();
+        return Flux.interval(resume.getPollInterval())
+                .concatMap(tick -> chatMessageService.findById(message.getId()))
+                .startWith(message)
+                .takeUntil(current -> !isInProgress(current))
+                .take(resume.getPollTimeout())
+                .concatMapIterable(current -> replay(current, cursor))
+                .concatWith(Flux.defer(() -> cursor.finished
+                        ? Flux.empty()
+                        : Flux.just(SseEvent.error("RESUME_TIMEOUT", "응답이 아직 생성 중입니다. 잠시 후 다시 시도해 주세요."))));
+    }
+
+    private List<SseEvent> replay(ChatMessage message, StoredCursor cursor) {
+        List<SseEvent> events = new ArrayList<>(2);
+        String content = message.getAssistantMessage() != null ? message.getAssistantMessage() : "";
+        if (content.length() > cursor.offset) {
+            String remaining = content.substring(cursor.offset);
+            cursor.offset = content.length();
+            events.add(cursor.next(SseEvent.chatMessage(remaining)));
+        }
+
+        switch (message.getStatus()) {
+            case COMPLETED -> {
+                if (Boolean.TRUE.equals(message.getIsComplete())) {
+                    events.add(cursor.next(SseEvent.chatEnd(message.getSessionId())));
+                }
+                cursor.finished = true;
+            }
+            case FAILED -> {
+                events.add(cursor.next(SseEvent.error("STREAM_FAILED", "응답 생성 중 오류가 발생했습니다. 다시 질문해 주세요.")));
+                cursor.finished = true;
+            }
+            case CANCELLED -> {
+                events.add(cursor.next(SseEvent.error("STREAM_CANCELLED", "연결이 끊겨 응답 생성이 중단되었습니다. 다시 질문해 주세요.")));
+                cursor.finished = true;
+            }
+            default -> {
+            }
+        }
+        return events;
+    }
+
+    private boolean isInProgress(ChatMessage message) {
+        return message.getStatus() == ChatMessage.MessageStatus.PENDING
+                || message.getStatus() == ChatMessage.MessageStatus.STREAMING;
+    }
+
+    private static final class StoredCursor {
+
+        private final String messageId;
+        private long seq;
+        private int offset;
+        private boolean finished;
+
+        private StoredCursor(SseEventId lastEventId) {
+            this.messageId = lastEventId.messageId();
+            this.seq = lastEventId.seq();
+            this.offset = lastEventId.offset();
+        }
+
+        private SseEvent next(SseEvent event) {
+            event.setId(new SseEventId(messageId, ++seq, offset).format());
+            return event;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.config.ChatContextProperties;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 컨텍스트 윈도우 밖으로 밀려난 턴을 요약합니다.
+ * 요약은 밀려난 턴의 질문 목록이며, 최대 길이를 넘으면 오래된 줄부터 잘라냅니다.
+ * 요청에 담긴 히스토리에서 매번 메모리로 만들므로 저장소를 거치지 않고, 윈도우에 남은 턴과 겹치지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatSummaryService {
+
+    private final ChatContextProperties contextProperties;
+
+    /**
+     * 요약할 질문이 없으면 null을 반환합니다.
+     */
+    public String rollingSummary(List<ChatRequest.ChatHistoryItem> droppedTurns) {
+        String summary = summarize(droppedTurns);
+        return summary.isEmpty() ? null : summary;
+    }
+
+    private String summarize(List<ChatRequest.ChatHistoryItem> droppedTurns) {
+        ChatContextProperties.Summary properties = contextProperties.getSummary();
+        StringBuilder builder = new StringBuilder();
+
+        for (ChatRequest.ChatHistoryItem turn : droppedTurns) {
+            if (turn.getUserMessage() == null || turn.getUserMessage().isBlank()) {
+                continue;
+            }
+            if (!builder.isEmpty()) {
+                builder.append('\n');
+            }
+            builder.append("- ").append(truncate(turn.getUserMessage().strip(), properties.getQuestionChars()));
+        }
+
+        // 최대 길이를 넘으면 가장 오래된 줄부터 제거
+        while (builder.length() > properties.getMaxChars()) {
+            int newline = builder.indexOf("\n");
+            if (newline < 0) {
+                builder.setLength(properties.getMaxChars());
+                break;
+            }
+            builder.delete(0, newline + 1);
+        }
+        return builder.toString();
+    }
+
+    private String truncate(String text, int maxChars) {
+        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "…";
+    }
+}
@@ -0,0 +1,100 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.domain.SessionReport;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import com.socrates.app.webflux.chat.repository.SessionReportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 리포트 생성 결과를 세션 구독자에게 전달합니다. 완료되면 report 이벤트, 실패하면 error 이벤트 하나를 보내고 종료합니다.
+ * 사전 생성 작업이 재시도 중인 세션은 중간 실패를 알리지 않고 채널을 열어 두어, 이후 성공을 받을 수 있게 합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportEventPublisher {
+
+    private final SessionReportRepository sessionReportRepository;
+
+    private final ConcurrentMap<String, Sinks.Many<SseEvent>> channels = new ConcurrentHashMap<>();
+    private final Set<String> retrying = ConcurrentHashMap.newKeySet();
+
+    public void publish(String sessionId, String markdown) {
+        emit(sessionId, SseEvent.report(sessionId, markdown));
+    }
+
+    /**
+     * 리포트 생성이 실패하면 구독자가 타임아웃까지 기다리지 않도록 error 이벤트로 알립니다.
+     */
+    public void publishFailure(String sessionId) {
+        if (retrying.contains(sessionId)) {
+            log.debug("리포트 재시도 예정, 실패 알림 보류 - sessionId: {}", sessionId);
+            return;
+        }
+        emitFailure(sessionId);
+    }
+
+    /**
+     * 사전 생성 작업이 재시도를 시작할 때 호출합니다. {@link #retriesFinished}까지 실패 알림을 보류합니다.
+     */
+    public void retrying(String sessionId) {
+        retrying.add(sessionId);
+    }
+
+    /**
+     * @param failed 재시도를 모두 소진하고 실패했으면 true. 이때 보류했던 실패를 알립니다.
+     */
+    public void retriesFinished(String sessionId, boolean failed) {
+        if (retrying.remove(sessionId) && failed) {
+            emitFailure(sessionId);
+        }
+    }
+
+    private void emitFailure(String sessionId) {
+        emit(sessionId, SseEvent.error("REPORT_FAILED", "리포트 생성에 실패했습니다. 잠시 후 다시 시도해 주세요."));
+    }
+
+    private void emit(String sessionId, SseEvent event) {
+        Sinks.Many<SseEvent> channel = channels.remove(sessionId);
+        if (channel == null) {
+            return;
+        }
+        channel.tryEmitNext(event);
+        channel.tryEmitComplete();
+        log.debug("리포트 이벤트 전달 - sessionId: {}, event: {}", sessionId, event.getEvent());
+    }
+
+    /**
+     * 채널을 먼저 만든 뒤 저장된 리포트를 조회하므로,
+     * 조회 직후 완료된 리포트도 채널을 통해 놓치지 않고 받습니다.
+     */
+    public Flux<SseEvent> subscribe(String sessionId, Duration timeout) {
+        return Flux.defer(() -> {
+            Sinks.Many<SseEvent> channel = channels.computeIfAbsent(sessionId,
+                    id -> Sinks.many().replay().latest());
+
+            Mono<SseEvent> stored = sessionReportRepository.findBySessionId(sessionId)
+                    .filter(report -> report.getStatus() == SessionReport.ReportStatus.COMPLETED)
+                    .map(report -> SseEvent.report(sessionId, report.getReportData()));
+
+            return Mono.firstWithValue(stored, channel.asFlux().next())
+                    .timeout(timeout, Mono.empty())
+                    .flux()
+                    .doFinally(signal -> {
+                        if (channel.currentSubscriberCount() == 0) {
+                            channels.remove(sessionId, channel);
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.config.ChatReportProperties;
+import com.socrates.app.webflux.chat.lock.RedisLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 세션별 리포트 생성 권한을 Redis SET NX PX 락으로 관리합니다. 생성 중에는 {@link #renew}로 만료 시간을 연장합니다.
+ * Redis 장애 시에는 락을 획득한 것으로 보고 생성을 진행합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportGenerationLock {
+
+    private final RedisLease redisLease;
+    private final ChatReportProperties reportProperties;
+
+    public Mono<Boolean> tryAcquire(String sessionId, String token) {
+        ChatReportProperties.SingleFlight properties = reportProperties.getSingleFlight();
+        return redisLease.tryAcquire(key(sessionId), token, properties.getLockTtl())
+                .onErrorResume(error -> {
+                    log.warn("리포트 락 획득 실패, 로컬 생성으로 진행 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * 생성이 lockTtl보다 길어져도 다른 인스턴스가 락을 가져가지 않도록 만료 시간을 연장합니다.
+     * Redis 장애 시에는 연장된 것으로 봅니다.
+     */
+    public Mono<Boolean> renew(String sessionId, String token) {
+        return redisLease.renew(key(sessionId), token, reportProperties.getSingleFlight().getLockTtl())
+                .onErrorResume(error -> {
+                    log.warn("리포트 락 연장 실패 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * 다른 인스턴스가 생성 중인지 확인합니다. Redis 장애 시에는 생성 중이 아닌 것으로 봅니다.
+     */
+    public Mono<Boolean> isHeld(String sessionId) {
+        return redisLease.isHeld(key(sessionId))
+                .onErrorResume(error -> {
+                    log.warn("리포트 락 확인 실패 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    public Mono<Void> release(String sessionId, String token) {
+        return redisLease.release(key(sessionId), token)
+                .onErrorResume(error -> {
+                    log.warn("리포트 락 해제 실패 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String key(String sessionId) {
+        return reportProperties.getSingleFlight().getKeyPrefix() + sessionId;
+    }
+}
@@ -0,0 +1,107 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.config.ChatReportProperties;
+import com.socrates.app.webflux.chat.domain.SessionReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * chat_end 이후 리포트를 미리 생성하는 백그라운드 작업 큐입니다.
+ * 큐 크기와 동시 생성 수가 제한되며, FAILED 리포트는 backoff로 재시도합니다.
+ * 구독자 알림은 SessionReportService가 상태를 저장할 때 보내되, 실패 알림은 재시도를 모두 소진한 뒤에만 보내며,
+ * 리포트에 쓰이는 히스토리 조회가 write-behind 큐를 먼저 비우므로 마지막 턴도 포함됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportPreGenerationWorker {
+
+    private final SessionReportService sessionReportService;
+    private final ReportEventPublisher reportEventPublisher;
+    private final ChatReportProperties reportProperties;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private Sinks.Many<String> jobs;
+    private Disposable worker;
+
+    @PostConstruct
+    public void start() {
+        ChatReportProperties.PreGeneration properties = reportProperties.getPreGeneration();
+        if (!properties.isEnabled()) {
+            return;
+        }
+        jobs = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(properties.getQueueCapacity()).get());
+        worker = jobs.asFlux()
+                .flatMap(this::generate, properties.getConcurrency())
+                .subscribe();
+    }
+
+    /**
+     * @return 작업이 등록되었으면 true (비활성화, 중복, 큐 포화 시 false)
+     */
+    public boolean enqueue(String sessionId) {
+        if (jobs == null || sessionId == null || !queued.add(sessionId)) {
+            return false;
+        }
+
+        Sinks.EmitResult result;
+        synchronized (this) {
+            result = jobs.tryEmitNext(sessionId);
+        }
+
+        if (result.isFailure()) {
+            queued.remove(sessionId);
+            log.warn("리포트 사전 생성 큐 등록 실패 - sessionId: {}, result: {}", sessionId, result);
+            return false;
+        }
+        log.info("리포트 사전 생성 등록 - sessionId: {}", sessionId);
+        return true;
+    }
+
+    private Mono<SessionReport> generate(String sessionId) {
+        ChatReportProperties.PreGeneration properties = reportProperties.getPreGeneration();
+
+        return Mono.fromRunnable(() -> reportEventPublisher.retrying(sessionId))
+                .then(sessionReportService.generateReport(sessionId))
+                .flatMap(report -> report.getStatus() == SessionReport.ReportStatus.COMPLETED
+                        ? Mono.just(report)
+                        : Mono.error(new ReportNotCompletedException(sessionId)))
+                .retryWhen(Retry.backoff(properties.getMaxRetries(), properties.getRetryBackoff())
+                        .filter(ReportNotCompletedException.class::isInstance))
+                .doOnNext(report -> log.info("리포트 사전 생성 완료 - sessionId: {}", sessionId))
+                .onErrorResume(error -> {
+                    log.error("리포트 사전 생성 실패 - sessionId: {}, error: {}", sessionId, error.getMessage());
+                    reportEventPublisher.retriesFinished(sessionId, true);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> {
+                    reportEventPublisher.retriesFinished(sessionId, false);
+                    queued.remove(sessionId);
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.dispose();
+        }
+    }
+
+    private static final class ReportNotCompletedException extends RuntimeException {
+
+        private ReportNotCompletedException(String sessionId) {
+            super("리포트가 완료되지 않았습니다: " + sessionId);
+        }
+    }
+}
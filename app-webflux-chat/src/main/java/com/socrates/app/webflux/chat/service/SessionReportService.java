@@ -1,6 +1,7 @@
 package com.socrates.app.webflux.chat.service;
 
 import com.socrates.app.webflux.chat.client.FastApiReportClient;
+import com.socrates.app.webflux.chat.config.ChatReportProperties;
 import com.socrates.app.webflux.chat.domain.ChatMessage;
 import com.socrates.app.webflux.chat.domain.SessionReport;
 import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
@@ -8,13 +9,19 @@ import com.socrates.app.webflux.chat.dto.FastApiReportResponse;
 import com.socrates.app.webflux.chat.repository.SessionReportRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Slf4j
 @Service
@@ -24,8 +31,82 @@ public class SessionReportService {
     private final FastApiReportClient fastApiReportClient;
     private final SessionReportRepository sessionReportRepository;
     private final ChatMessageService chatMessageService;
+    private final ReportGenerationLock reportGenerationLock;
+    private final ReportEventPublisher reportEventPublisher;
+    private final ChatReportProperties reportProperties;
 
+    private final ConcurrentMap<String, Mono<SessionReport>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 같은 세션에 대한 동시 요청은 진행 중인 하나의 생성 작업(FastAPI 호출 + MongoDB 갱신)을 공유합니다.
+     */
     public Mono<SessionReport> generateReport(String sessionId) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(sessionId, this::startFlight));
+    }
+
+    private Mono<SessionReport> startFlight(String sessionId) {
+        Mono<SessionReport> flight = reportProperties.getSingleFlight().isDistributed()
+                ? generateWithLock(sessionId)
+                : generateOrLoad(sessionId);
+
+        return flight
+                .doFinally(signal -> inFlight.remove(sessionId))
+                .cache();
+    }
+
+    private Mono<SessionReport> generateWithLock(String sessionId) {
+        String token = UUID.randomUUID().toString();
+
+        return reportGenerationLock.tryAcquire(sessionId, token)
+                .flatMap(acquired -> {
+                    if (!acquired) {
+                        log.info("다른 인스턴스에서 리포트 생성 중 - sessionId: {}", sessionId);
+                        return awaitRemoteReport(sessionId);
+                    }
+                    // FastAPI 리포트 호출이 lockTtl보다 길어질 수 있으므로 생성이 끝날 때까지 락을 연장합니다
+                    return Mono.usingWhen(
+                            Mono.fromSupplier(() -> renewEvery(sessionId, token)),
+                            watchdog -> generateOrLoad(sessionId),
+                            watchdog -> release(sessionId, token, watchdog),
+                            (watchdog, error) -> release(sessionId, token, watchdog),
+                            watchdog -> release(sessionId, token, watchdog));
+                });
+    }
+
+    private Disposable renewEvery(String sessionId, String token) {
+        return Flux.interval(reportProperties.getSingleFlight().getLockTtl().dividedBy(3))
+                .concatMap(tick -> reportGenerationLock.renew(sessionId, token))
+                .filter(renewed -> !renewed)
+                .subscribe(lost -> log.warn("리포트 락을 잃음 - sessionId: {}", sessionId));
+    }
+
+    private Mono<Void> release(String sessionId, String token, Disposable watchdog) {
+        watchdog.dispose();
+        return reportGenerationLock.release(sessionId, token);
+    }
+
+    private Mono<SessionReport> awaitRemoteReport(String sessionId) {
+        ChatReportProperties.SingleFlight properties = reportProperties.getSingleFlight();
+
+        // 이전 실행의 FAILED 리포트는 락을 가진 인스턴스가 다시 생성하는 중일 수 있으므로, 락이 풀린 뒤에만 결과로 봅니다
+        return sessionReportRepository.findBySessionId(sessionId)
+                .filterWhen(report -> {
+                    if (report.getStatus() == SessionReport.ReportStatus.COMPLETED) {
+                        return Mono.just(true);
+                    }
+                    if (report.getStatus() == SessionReport.ReportStatus.FAILED) {
+                        return reportGenerationLock.isHeld(sessionId).map(held -> !held);
+                    }
+                    return Mono.just(false);
+                })
+                .repeatWhenEmpty(attempts -> attempts.delayElements(properties.getPollInterval()))
+                .timeout(properties.getWaitTimeout(), Mono.defer(() -> {
+                    log.warn("원격 리포트 생성 대기 시간 초과, 직접 생성 - sessionId: {}", sessionId);
+                    return generateOrLoad(sessionId);
+                }));
+    }
+
+    private Mono<SessionReport> generateOrLoad(String sessionId) {
         log.info("리포트 생성 시작 - sessionId: {}", sessionId);
 
         return sessionReportRepository.findBySessionId(sessionId)
@@ -40,7 +121,9 @@ public class SessionReportService {
                     log.info("신규 리포트 생성 - sessionId: {}", sessionId);
                     return getUserIdFromMessages(sessionId)
                             .flatMap(userId -> createPendingReport(userId, sessionId)
-                                    .flatMap(report -> regenerateReport(sessionId, report)));
+                                    .flatMap(report -> report.getStatus() == SessionReport.ReportStatus.COMPLETED
+                                            ? Mono.just(report)
+                                            : regenerateReport(sessionId, report)));
                 }))
                 .subscribeOn(Schedulers.boundedElastic());
     }
@@ -80,6 +163,7 @@ public class SessionReportService {
 
                     return FastApiChatRequest.builder()
                             .data(dataWrapper)
+                            .sessionId(sessionId)
                             .build();
                 })
                 .doOnSuccess(request -> log.debug("리포트 요청 생성 완료 - sessionId: {}, messageCount: {}",
@@ -95,7 +179,12 @@ public class SessionReportService {
                 .build();
 
         return sessionReportRepository.save(report)
-                .doOnSuccess(saved -> log.debug("대기 중 리포트 생성: {}", saved.getId()));
+                .doOnSuccess(saved -> log.debug("대기 중 리포트 생성: {}", saved.getId()))
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    // 다른 요청/인스턴스가 먼저 만든 리포트를 이어서 사용합니다.
+                    log.info("이미 생성된 리포트 사용 - sessionId: {}", sessionId);
+                    return sessionReportRepository.findBySessionId(sessionId);
+                });
     }
 
     private Mono<SessionReport> updateCompletedReport(String reportId, FastApiReportResponse reportResponse) {
@@ -106,7 +195,10 @@ public class SessionReportService {
                     report.setStatus(SessionReport.ReportStatus.COMPLETED);
                     return sessionReportRepository.save(report);
                 })
-                .doOnSuccess(saved -> log.debug("리포트 완료 업데이트: {}", saved.getId()));
+                .doOnNext(saved -> {
+                    log.debug("리포트 완료 업데이트: {}", saved.getId());
+                    reportEventPublisher.publish(saved.getSessionId(), saved.getReportData());
+                });
     }
 
     private Mono<SessionReport> updateFailedReport(String reportId) {
@@ -115,7 +207,10 @@ public class SessionReportService {
                     report.setStatus(SessionReport.ReportStatus.FAILED);
                     return sessionReportRepository.save(report);
                 })
-                .doOnSuccess(saved -> log.debug("리포트 실패 업데이트: {}", saved.getId()));
+                .doOnNext(saved -> {
+                    log.debug("리포트 실패 업데이트: {}", saved.getId());
+                    reportEventPublisher.publishFailure(saved.getSessionId());
+                });
     }
 
 }
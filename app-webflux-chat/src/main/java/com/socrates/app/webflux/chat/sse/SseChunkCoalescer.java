@@ -0,0 +1,163 @@
+package com.socrates.app.webflux.chat.sse;
+
+import com.socrates.app.webflux.chat.config.ChatStreamProperties;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 연속된 message 이벤트를 바이트 예산/최대 지연 시간 기준으로 하나의 이벤트로 합칩니다.
+ * 첫 청크는 체감 응답 시간을 위해 바로 내보내고, 이후 청크부터 묶습니다.
+ * message 외의 이벤트(chat_end 등)는 대기 중인 청크를 먼저 내보낸 뒤 그대로 전달합니다.
+ * 합쳐진 이벤트는 마지막 청크의 id를 이어받으므로 Last-Event-ID 기반 재개 위치가 어긋나지 않습니다.
+ * <p>
+ * windowUntil/bufferTimeout은 하위 요청량만큼만 상위에 요청하므로, 클라이언트가 느리면 FastAPI 스트림 읽기도 늦춰집니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SseChunkCoalescer {
+
+    private static final String MESSAGE_EVENT = "message";
+
+    private final ChatStreamProperties streamProperties;
+
+    public Flux<SseEvent> coalesce(Flux<SseEvent> events) {
+        return coalesce(events, null, null);
+    }
+
+    /**
+     * 요청별 바이트 예산/지연 시간을 적용합니다. 비어 있으면 설정값을 쓰고, 값은 설정된 상한 안으로 제한합니다.
+     */
+    public Flux<SseEvent> coalesce(Flux<SseEvent> events, Integer requestedMaxBytes, Duration requestedMaxLatency) {
+        ChatStreamProperties.Coalesce coalesce = streamProperties.getCoalesce();
+        if (!coalesce.isEnabled()) {
+            return events;
+        }
+        int maxBytes = requestedMaxBytes != null
+                ? Math.clamp(requestedMaxBytes, 1, coalesce.getMaxBytesLimit())
+                : coalesce.getMaxBytes();
+        Duration maxLatency = requestedMaxLatency != null
+                ? clamp(requestedMaxLatency, Duration.ofMillis(1), coalesce.getMaxLatencyLimit())
+                : coalesce.getMaxLatency();
+        return coalesce(events, maxBytes, maxLatency, Schedulers.parallel());
+    }
+
+    public Flux<SseEvent> coalesce(Flux<SseEvent> events, int maxBytes, Duration maxLatency, Scheduler scheduler) {
+        // 완료/에러도 하나의 항목으로 다뤄야 대기 중인 청크를 먼저 내보낼 수 있습니다
+        return Flux.defer(() -> {
+            WindowBoundary boundary = new WindowBoundary(maxBytes);
+            return events.materialize()
+                    .windowUntil(boundary::closes)
+                    .concatMap(window -> window
+                            .bufferTimeout(maxBytes, maxLatency, scheduler, true)
+                            .concatMapIterable(SseChunkCoalescer::merge))
+                    .dematerialize();
+        });
+    }
+
+    static int utf8Length(CharSequence text) {
+        int bytes = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static Duration clamp(Duration value, Duration min, Duration max) {
+        if (value.compareTo(min) < 0) {
+            return min;
+        }
+        return value.compareTo(max) > 0 ? max : value;
+    }
+
+    private static String chunkOf(Signal<SseEvent> signal) {
+        if (signal.isOnNext()
+                && MESSAGE_EVENT.equals(signal.get().getEvent())
+                && signal.get().getData() instanceof String chunk) {
+            return chunk;
+        }
+        return null;
+    }
+
+    /**
+     * 버퍼 안의 연속된 message 청크를 하나로 합치고, 나머지 신호는 순서대로 전달합니다.
+     */
+    private static List<Signal<SseEvent>> merge(List<Signal<SseEvent>> buffer) {
+        List<Signal<SseEvent>> merged = new ArrayList<>(2);
+        List<Signal<SseEvent>> run = new ArrayList<>();
+        for (Signal<SseEvent> signal : buffer) {
+            if (chunkOf(signal) != null) {
+                run.add(signal);
+                continue;
+            }
+            mergeRun(run, merged);
+            merged.add(signal);
+        }
+        mergeRun(run, merged);
+        return merged;
+    }
+
+    private static void mergeRun(List<Signal<SseEvent>> run, List<Signal<SseEvent>> merged) {
+        if (run.size() == 1) {
+            merged.add(run.get(0));
+        } else if (!run.isEmpty()) {
+            StringBuilder content = new StringBuilder();
+            for (Signal<SseEvent> signal : run) {
+                content.append(chunkOf(signal));
+            }
+            SseEvent event = SseEvent.chatMessage(content.toString());
+            event.setId(run.get(run.size() - 1).get().getId());
+            merged.add(Signal.next(event));
+        }
+        run.clear();
+    }
+
+    /**
+     * 윈도우를 닫는 항목을 판단합니다. 윈도우가 닫히면 bufferTimeout이 대기 중인 청크를 즉시 내보냅니다.
+     * 첫 청크, message 외의 이벤트, 완료/에러, 바이트 예산 도달 시 닫습니다.
+     */
+    private static final class WindowBoundary {
+
+        private final int maxBytes;
+        private boolean firstChunkSeen;
+        private int windowBytes;
+
+        private WindowBoundary(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        private boolean closes(Signal<SseEvent> signal) {
+            String chunk = chunkOf(signal);
+            if (chunk == null || !firstChunkSeen) {
+                firstChunkSeen |= chunk != null;
+                windowBytes = 0;
+                return true;
+            }
+            windowBytes += utf8Length(chunk);
+            if (windowBytes >= maxBytes) {
+                windowBytes = 0;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.socrates.app.webflux.chat.sse;
+
+/**
+ * 채팅 스트림 SSE 이벤트 id: {@code {messageId}:{seq}:{offset}}
+ * <ul>
+ *     <li>seq: 메시지 안에서 단조 증가하는 이벤트 순번</li>
+ *     <li>offset: 이 이벤트까지 전달된 응답(assistantMessage) 글자 수</li>
+ * </ul>
+ * offset이 저장된 응답 기준이므로, 버퍼가 사라진 뒤에도 저장된 메시지에서 이어서 보낼 수 있습니다.
+ */
+public record SseEventId(String messageId, long seq, int offset) {
+
+    private static final char SEPARATOR = ':';
+
+    public String format() {
+        return messageId + SEPARATOR + seq + SEPARATOR + offset;
+    }
+
+    /**
+     * 형식이 맞지 않으면 null을 반환합니다.
+     */
+    public static SseEventId parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int offsetSeparator = value.lastIndexOf(SEPARATOR);
+        int seqSeparator = offsetSeparator > 0 ? value.lastIndexOf(SEPARATOR, offsetSeparator - 1) : -1;
+        if (seqSeparator <= 0) {
+            return null;
+        }
+        try {
+            long seq = Long.parseLong(value, seqSeparator + 1, offsetSeparator, 10);
+            int offset = Integer.parseInt(value, offsetSeparator + 1, value.length(), 10);
+            if (seq < 0 || offset < 0) {
+                return null;
+            }
+            return new SseEventId(value.substring(0, seqSeparator).trim(), seq, offset);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.socrates.app.webflux.chat.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * SseEvent를 ServerSentEvent 객체나 중간 문자열 없이 {@code id:/event:/data:} 프레임으로
+ * 응답 버퍼(Netty 풀링 버퍼)에 직접 기록합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SseFrameEncoder {
+
+    private static final byte[] ID_PREFIX = bytes("id:");
+    private static final byte[] EVENT_PREFIX = bytes("event:");
+    private static final byte[] DATA_PREFIX = bytes("data:");
+    private static final byte NEWLINE = '\n';
+    private static final byte[] SERIALIZATION_ERROR_FRAME =
+            bytes("event:error\ndata:{\"error\": \"Failed to serialize event\"}\n\n");
+
+    // 자주 쓰이는 이벤트 헤더는 미리 인코딩해 둡니다.
+    private static final Map<String, byte[]> EVENT_HEADERS = Map.of(
+            "message", bytes("event:message\n"),
+            "chat_end", bytes("event:chat_end\n"),
+            "report", bytes("event:report\n"),
+            "error", bytes("event:error\n"),
+            "busy", bytes("event:busy\n")
+    );
+
+    private final ObjectMapper objectMapper;
+
+    public Flux<DataBuffer> encode(Flux<SseEvent> events, DataBufferFactory bufferFactory) {
+        return events
+                .map(event -> encode(event, bufferFactory))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    public DataBuffer encode(SseEvent event, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(estimateSize(event));
+        try {
+            writeId(buffer, event.getId());
+            writeEventHeader(buffer, event.getEvent());
+            writeData(buffer, event.getData());
+            buffer.write(NEWLINE);
+            return buffer;
+        } catch (IOException e) {
+            log.error("SSE 이벤트 JSON 변환 실패: {}", e.getMessage());
+            DataBufferUtils.release(buffer);
+            return bufferFactory.wrap(SERIALIZATION_ERROR_FRAME);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private void writeId(DataBuffer buffer, String id) {
+        if (id == null) {
+            return;
+        }
+        buffer.write(ID_PREFIX);
+        buffer.write(id, StandardCharsets.UTF_8);
+        buffer.write(NEWLINE);
+    }
+
+    private void writeEventHeader(DataBuffer buffer, String event) {
+        if (event == null) {
+            return;
+        }
+        byte[] header = EVENT_HEADERS.get(event);
+        if (header != null) {
+            buffer.write(header);
+            return;
+        }
+        buffer.write(EVENT_PREFIX);
+        buffer.write(event, StandardCharsets.UTF_8);
+        buffer.write(NEWLINE);
+    }
+
+    private void writeData(DataBuffer buffer, Object data) throws IOException {
+        if (data == null) {
+            return;
+        }
+        if (data instanceof String text) {
+            writeTextData(buffer, text);
+            return;
+        }
+        // JSON 직렬화 결과에는 개행이 포함되지 않으므로 data 라인 하나로 기록합니다.
+        buffer.write(DATA_PREFIX);
+        try (OutputStream out = buffer.asOutputStream()) {
+            objectMapper.writeValue(out, data);
+        }
+        buffer.write(NEWLINE);
+    }
+
+    /**
+     * SSE 규격에 맞춰 본문의 개행마다 별도의 data 라인을 기록합니다.
+     */
+    private void writeTextData(DataBuffer buffer, String text) {
+        int start = 0;
+        int newline = text.indexOf('\n');
+        if (newline < 0) {
+            buffer.write(DATA_PREFIX);
+            buffer.write(text, StandardCharsets.UTF_8);
+            buffer.write(NEWLINE);
+            return;
+        }
+        while (newline >= 0) {
+            buffer.write(DATA_PREFIX);
+            buffer.write(text.subSequence(start, newline), StandardCharsets.UTF_8);
+            buffer.write(NEWLINE);
+            start = newline + 1;
+            newline = text.indexOf('\n', start);
+        }
+        buffer.write(DATA_PREFIX);
+        buffer.write(text.subSequence(start, text.length()), StandardCharsets.UTF_8);
+        buffer.write(NEWLINE);
+    }
+
+    private int estimateSize(SseEvent event) {
+        int size = 32;
+        if (event.getId() != null) {
+            size += event.getId().length() + 4;
+        }
+        if (event.getEvent() != null) {
+            size += event.getEvent().length();
+        }
+        if (event.getData() instanceof String text) {
+            // 한글은 UTF-8에서 3바이트이므로 최악의 경우를 기준으로 잡습니다.
+            size += text.length() * 3;
+        } else if (event.getData() != null) {
+            size += 128;
+        }
+        return size;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,258 @@
+package com.socrates.app.webflux.chat.sse;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.socrates.app.webflux.chat.config.ChatStreamProperties;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 생성을 HTTP 응답과 분리해, 연결이 끊겨도 같은 메시지를 Last-Event-ID 위치부터 이어서 받을 수 있게 합니다.
+ * 메시지별로 누적 응답과 message 외 이벤트(chat_end, error)만 보관하므로 버퍼 크기는 응답 길이를 넘지 않고,
+ * 각 구독자는 자신의 위치(seq, offset)부터 읽습니다. 밀린 청크는 하나의 message 이벤트로 합쳐 전달됩니다.
+ * 모든 구독자가 끊기면 detachGrace 동안 재연결을 기다린 뒤 응답 생성을 취소합니다.
+ */
+@Slf4j
+@Component
+public class SseReplayBuffer {
+
+    private static final String MESSAGE_EVENT = "message";
+    private static final Sinks.EmitFailureHandler RETRY_ON_CONTENTION =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    private final ChatStreamProperties.Resume resume;
+    private final Cache<String, Channel> channels;
+
+    public SseReplayBuffer(ChatStreamProperties streamProperties) {
+        this.resume = streamProperties.getResume();
+        this.channels = Caffeine.newBuilder()
+                .maximumSize(resume.getMaxMessages())
+                .expireAfterWrite(resume.getRetention())
+                .build();
+    }
+
+    /**
+     * 응답 생성 스트림을 메시지 버퍼에 연결하고, 요청한 클라이언트가 구독할 스트림을 반환합니다.
+     * 응답 생성은 이 스트림이 처음 구독될 때 시작됩니다.
+     */
+    public Flux<SseEvent> attach(String messageId, Flux<SseEvent> generation) {
+        if (!resume.isEnabled()) {
+            return generation;
+        }
+        Channel channel = new Channel(messageId, generation);
+        channels.put(messageId, channel);
+        return channel.subscribe(0, 0);
+    }
+
+    /**
+     * 메시지 버퍼가 남아 있으면 lastEventId 이후 이벤트부터 이어지는 스트림을, 없으면 null을 반환합니다.
+     */
+    public Flux<SseEvent> resume(SseEventId lastEventId) {
+        if (!resume.isEnabled()) {
+            return null;
+        }
+        Channel channel = channels.getIfPresent(lastEventId.messageId());
+        return channel != null ? channel.subscribe(lastEventId.seq(), lastEventId.offset()) : null;
+    }
+
+    private record Marker(long seq, int offset, SseEvent event) {
+    }
+
+    private static final class Cursor {
+
+        private long seq;
+        private int offset;
+
+        private Cursor(long seq, int offset) {
+            this.seq = seq;
+            this.offset = offset;
+        }
+    }
+
+    private final class Channel {
+
+        private final String messageId;
+        private final Flux<SseEvent> generation;
+        private final StringBuilder content = new StringBuilder();
+        private final List<Marker> markers = new ArrayList<>(2);
+        // 값 자체가 아니라 "새 이벤트가 있다"는 신호로만 사용합니다
+        private final Sinks.Many<Long> updates = Sinks.many().replay().latest();
+        private long seq;
+        private boolean started;
+        private boolean done;
+        private Throwable error;
+        private int subscribers;
+        private Disposable subscription;
+        private Disposable detachTimer;
+
+        private Channel(String messageId, Flux<SseEvent> generation) {
+            this.messageId = messageId;
+            this.generation = generation;
+        }
+
+        private Flux<SseEvent> subscribe(long fromSeq, int fromOffset) {
+            return Flux.deferContextual(context -> {
+                Cursor cursor = new Cursor(fromSeq, fromOffset);
+                attachSubscriber(context);
+                return updates.asFlux()
+                        .onBackpressureLatest()
+                        .concatMapIterable(update -> drain(cursor), 1)
+                        .concatWith(Flux.defer(() -> finish(cursor)))
+                        .doFinally(signal -> detachSubscriber());
+            });
+        }
+
+        private void attachSubscriber(ContextView context) {
+            boolean start;
+            synchronized (this) {
+                subscribers++;
+                if (detachTimer != null) {
+                    detachTimer.dispose();
+                    detachTimer = null;
+                }
+                start = !started && !done;
+                started = true;
+            }
+            if (start) {
+                Disposable disposable = generation
+                        .contextWrite(context)
+                        .subscribe(this::publish, this::fail, this::complete);
+                synchronized (this) {
+                    subscription = disposable;
+                }
+            }
+        }
+
+        private void detachSubscriber() {
+            synchronized (this) {
+                subscribers--;
+                if (subscribers > 0 || done) {
+                    return;
+                }
+                if (!resume.getDetachGrace().isZero()) {
+                    detachTimer = Schedulers.parallel().schedule(this::abandon,
+                            resume.getDetachGrace().toMillis(), TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+            abandon();
+        }
+
+        /**
+         * 재연결이 없으면 응답 생성을 취소합니다. 이후 재개 요청은 부분 응답과 error 이벤트를 받습니다.
+         */
+        private void abandon() {
+            Disposable toCancel;
+            synchronized (this) {
+                detachTimer = null;
+                if (subscribers > 0 || done) {
+                    return;
+                }
+                addMarker(SseEvent.error("STREAM_CANCELLED", "연결이 끊겨 응답 생성이 중단되었습니다. 다시 질문해 주세요."));
+                done = true;
+                toCancel = subscription;
+            }
+            log.info("재연결이 없어 응답 생성 중단 - messageId: {}", messageId);
+            if (toCancel != null) {
+                toCancel.dispose();
+            }
+            updates.emitComplete(RETRY_ON_CONTENTION);
+        }
+
+        private void publish(SseEvent event) {
+            long current;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (MESSAGE_EVENT.equals(event.getEvent()) && event.getData() instanceof String chunk) {
+                    content.append(chunk);
+                    current = ++seq;
+                } else {
+                    current = addMarker(event);
+                }
+            }
+            updates.emitNext(current, RETRY_ON_CONTENTION);
+        }
+
+        private void fail(Throwable throwable) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                error = throwable;
+                done = true;
+            }
+            updates.emitComplete(RETRY_ON_CONTENTION);
+            retain();
+        }
+
+        private void complete() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            updates.emitComplete(RETRY_ON_CONTENTION);
+            retain();
+        }
+
+        // 응답이 끝난 시점부터 retention 동안 유지되도록 만료 시간을 갱신합니다
+        private void retain() {
+            channels.asMap().replace(messageId, this, this);
+        }
+
+        private long addMarker(SseEvent event) {
+            long current = ++seq;
+            event.setId(new SseEventId(messageId, current, content.length()).format());
+            markers.add(new Marker(current, content.length(), event));
+            return current;
+        }
+
+        private synchronized List<SseEvent> drain(Cursor cursor) {
+            List<SseEvent> events = new ArrayList<>(2);
+            for (Marker marker : markers) {
+                if (marker.seq() <= cursor.seq) {
+                    continue;
+                }
+                appendContent(events, cursor, marker.seq() - 1, marker.offset());
+                events.add(marker.event());
+                cursor.seq = marker.seq();
+            }
+            appendContent(events, cursor, seq, content.length());
+            return events;
+        }
+
+        private void appendContent(List<SseEvent> events, Cursor cursor, long eventSeq, int endOffset) {
+            if (endOffset <= cursor.offset) {
+                return;
+            }
+            SseEvent event = SseEvent.chatMessage(content.substring(cursor.offset, endOffset));
+            event.setId(new SseEventId(messageId, eventSeq, endOffset).format());
+            events.add(event);
+            cursor.seq = Math.max(cursor.seq, eventSeq);
+            cursor.offset = endOffset;
+        }
+
+        private Flux<SseEvent> finish(Cursor cursor) {
+            Flux<SseEvent> remaining = Flux.fromIterable(drain(cursor));
+            Throwable failure;
+            synchronized (this) {
+                failure = error;
+            }
+            return failure != null ? remaining.concatWith(Flux.error(failure)) : remaining;
+        }
+    }
+}
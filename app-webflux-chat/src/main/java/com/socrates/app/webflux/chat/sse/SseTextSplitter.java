@@ -0,0 +1,44 @@
+package com.socrates.app.webflux.chat.sse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 응답 텍스트를 단어와 공백 문자 단위로 분할합니다.
+ * 기존 {@code split("(?<=\\s)|(?=\\s)")}와 같은 결과를 정규식 없이 만듭니다.
+ */
+public final class SseTextSplitter {
+
+    private static final String SPACE = " ";
+
+    private SseTextSplitter() {
+    }
+
+    public static List<String> splitWords(String content) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        int length = content.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            if (!isWhitespace(c)) {
+                continue;
+            }
+            if (start < i) {
+                words.add(content.substring(start, i));
+            }
+            words.add(c == ' ' ? SPACE : String.valueOf(c));
+            start = i + 1;
+        }
+
+        if (start < length) {
+            words.add(content.substring(start));
+        }
+        return words;
+    }
+
+    // 정규식 \s 와 동일한 문자 집합
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,52 @@
+package com.socrates.app.webflux.chat.admission;
+
+import com.socrates.app.webflux.chat.config.ChatAdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatStreamAdmissionTest {
+
+    private ChatStreamAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        ChatAdmissionProperties properties = new ChatAdmissionProperties();
+        properties.setMaxConcurrentStreams(1);
+        properties.setMaxStreamsPerUser(5);
+        properties.setPriorityReserve(1);
+        admission = new ChatStreamAdmission(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void admittedButUnfinishedTurnDoesNotEarnPriority() {
+        ChatStreamAdmission.Ticket first = admission.tryAdmit("u1", "s1");
+        assertThat(first).isNotNull();
+        // 완료되지 않은 첫 턴만으로는 대화 중인 세션이 아닙니다
+        first.release();
+
+        assertThat(admission.tryAdmit("u2", "s2")).isNotNull();
+        assertThat(admission.tryAdmit("u1", "s1")).isNull();
+    }
+
+    @Test
+    void completedTurnLetsTheSessionUseTheReserve() {
+        admission.markActive("s1");
+
+        assertThat(admission.tryAdmit("u2", "s2")).isNotNull();
+        assertThat(admission.tryAdmit("u1", "s1")).isNotNull();
+        assertThat(admission.tryAdmit("u3", "s3")).isNull();
+        assertThat(admission.activeStreams()).isEqualTo(2);
+    }
+
+    @Test
+    void releasingATicketTwiceFreesOneSlot() {
+        ChatStreamAdmission.Ticket ticket = admission.tryAdmit("u1", "s1");
+        ticket.release();
+        ticket.release();
+
+        assertThat(admission.activeStreams()).isZero();
+    }
+}
@@ -0,0 +1,145 @@
+package com.socrates.app.webflux.chat.admission;
+
+import com.socrates.app.webflux.chat.config.ChatTurnQueueProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SessionTurnQueueTest {
+
+    private static SessionTurnQueue queue(ChatTurnQueueProperties.Mode mode, int maxQueued) {
+        ChatTurnQueueProperties properties = new ChatTurnQueueProperties();
+        properties.setMode(mode);
+        properties.setMaxQueued(maxQueued);
+        return new SessionTurnQueue(properties, mock(SessionTurnLock.class), new SimpleMeterRegistry());
+    }
+
+    private static SessionTurnQueue.Turn acquire(SessionTurnQueue queue, String requestId) {
+        return queue.acquire("s1", requestId).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void startsTheNextTurnOnlyAfterTheActiveOneIsReleased() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.QUEUE, 2);
+        SessionTurnQueue.Turn first = acquire(queue, "r1");
+
+        AtomicReference<SessionTurnQueue.Turn> second = new AtomicReference<>();
+        queue.acquire("s1", "r2").subscribe(second::set);
+        assertThat(second.get()).isNull();
+
+        first.release();
+        assertThat(second.get()).isNotNull();
+        assertThat(second.get().isDuplicate()).isFalse();
+    }
+
+    @Test
+    void queueModeNeverCoalescesTheSameRequestId() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.QUEUE, 2);
+        SessionTurnQueue.Turn first = acquire(queue, "r1");
+
+        AtomicReference<SessionTurnQueue.Turn> retry = new AtomicReference<>();
+        queue.acquire("s1", "r1").subscribe(retry::set);
+        assertThat(retry.get()).isNull();
+
+        first.release();
+        assertThat(retry.get().isDuplicate()).isFalse();
+    }
+
+    @Test
+    void coalescesARetryWithTheSameRequestId() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.COALESCE, 2);
+        SessionTurnQueue.Turn first = acquire(queue, "r1");
+
+        SessionTurnQueue.Turn retry = acquire(queue, "r1");
+        assertThat(retry.isDuplicate()).isTrue();
+
+        StepVerifier.create(retry.originalMessageId())
+                .then(() -> first.started("m1"))
+                .expectNext("m1")
+                .verifyComplete();
+    }
+
+    @Test
+    void doesNotCoalesceRequestsWithoutARequestId() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.COALESCE, 2);
+        SessionTurnQueue.Turn first = acquire(queue, null);
+
+        AtomicReference<SessionTurnQueue.Turn> second = new AtomicReference<>();
+        queue.acquire("s1", null).subscribe(second::set);
+        assertThat(second.get()).isNull();
+
+        first.release();
+        assertThat(second.get().isDuplicate()).isFalse();
+    }
+
+    @Test
+    void failsCoalescedRetryWhenTheOriginalEndsBeforeStarting() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.COALESCE, 2);
+        SessionTurnQueue.Turn first = acquire(queue, "r1");
+        SessionTurnQueue.Turn retry = acquire(queue, "r1");
+
+        first.release();
+
+        StepVerifier.create(retry.originalMessageId())
+                .expectError(SessionTurnRejectedException.class)
+                .verify();
+    }
+
+    @Test
+    void rejectsWhileATurnIsActiveInRejectMode() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.REJECT, 2);
+        acquire(queue, "r1");
+
+        StepVerifier.create(queue.acquire("s1", "r2"))
+                .expectErrorSatisfies(error -> assertThat(((SessionTurnRejectedException) error).getReason())
+                        .isEqualTo("in_progress"))
+                .verify();
+    }
+
+    @Test
+    void rejectsWhenTheSessionQueueIsFull() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.QUEUE, 1);
+        acquire(queue, "r1");
+        queue.acquire("s1", "r2").subscribe();
+
+        StepVerifier.create(queue.acquire("s1", "r3"))
+                .expectErrorSatisfies(error -> assertThat(((SessionTurnRejectedException) error).getReason())
+                        .isEqualTo("queue_full"))
+                .verify();
+    }
+
+    @Test
+    void rejectsAWaitingTurnAfterQueueTimeout() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.QUEUE, 1);
+        SessionTurnQueue.Turn first = acquire(queue, "r1");
+
+        StepVerifier.withVirtualTime(() -> queue.acquire("s1", "r2"))
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(30))
+                .expectErrorSatisfies(error -> assertThat(((SessionTurnRejectedException) error).getReason())
+                        .isEqualTo("timeout"))
+                .verify();
+
+        // 시간 초과된 턴은 대기열에서 빠지므로 다음 턴이 다시 대기할 수 있습니다
+        AtomicReference<SessionTurnQueue.Turn> next = new AtomicReference<>();
+        queue.acquire("s1", "r3").subscribe(next::set);
+        first.release();
+        assertThat(next.get()).isNotNull();
+    }
+
+    @Test
+    void sessionsDoNotBlockEachOther() {
+        SessionTurnQueue queue = queue(ChatTurnQueueProperties.Mode.QUEUE, 2);
+        acquire(queue, "r1");
+
+        StepVerifier.create(queue.acquire("s2", "r1"))
+                .assertNext(turn -> assertThat(turn.isDuplicate()).isFalse())
+                .verifyComplete();
+    }
+}
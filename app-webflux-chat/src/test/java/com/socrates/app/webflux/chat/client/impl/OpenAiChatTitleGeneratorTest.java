@@ -0,0 +1,87 @@
+package com.socrates.app.webflux.chat.client.impl;
+
+import com.socrates.app.webflux.chat.config.OpenAiTitleProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenAiChatTitleGeneratorTest {
+
+    private static final String RESPONSE = """
+            {"choices":[{"message":{"role":"assistant","content":" 재귀 함수의 종료 조건 "}}]}
+            """;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private OpenAiChatTitleGenerator generator(Duration responseDelay, Duration latencyBudget) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(responseDelay).thenReturn(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(RESPONSE)
+                            .build());
+                })
+                .build();
+        OpenAiTitleProperties properties = new OpenAiTitleProperties();
+        properties.setLatencyBudget(latencyBudget);
+        return new OpenAiChatTitleGenerator(webClient, properties);
+    }
+
+    @Test
+    void doesNotCallOpenAiUntilSubscribed() {
+        OpenAiChatTitleGenerator generator = generator(Duration.ZERO, Duration.ofSeconds(5));
+
+        Mono<String> title = generator.generateTitle("재귀 함수는 언제 끝나나요?");
+        assertThat(calls).hasValue(0);
+
+        StepVerifier.create(title).expectNext("재귀 함수의 종료 조건").verifyComplete();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void sharesOneCallAcrossConcurrentIdenticalMessages() {
+        OpenAiChatTitleGenerator generator = generator(Duration.ofMillis(200), Duration.ofSeconds(5));
+
+        StepVerifier.create(Flux.merge(
+                        generator.generateTitle("재귀 함수는 언제 끝나나요?"),
+                        generator.generateTitle("재귀 함수는  언제 끝나나요"),
+                        generator.generateTitle("재귀 함수는 언제 끝나나요?")))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+
+        // 완료 후에는 캐시에서 바로 반환합니다
+        StepVerifier.create(generator.generateTitle("재귀 함수는 언제 끝나나요?"))
+                .expectNext("재귀 함수의 종료 조건")
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void fallsBackWithinTheBudgetAndCachesTheLateTitle() {
+        OpenAiChatTitleGenerator generator = generator(Duration.ofMillis(300), Duration.ofMillis(50));
+
+        StepVerifier.create(generator.generateTitle("재귀 함수는 언제 끝나나요? 예시도 알려주세요"))
+                .expectNext("재귀 함수는 언제 끝나나요")
+                .verifyComplete();
+
+        // 지연 예산이 지나도 호출은 취소되지 않고 끝나서 캐시를 채웁니다
+        StepVerifier.create(Mono.delay(Duration.ofMillis(500))
+                        .then(generator.generateTitle("재귀 함수는 언제 끝나나요? 예시도 알려주세요")))
+                .expectNext("재귀 함수의 종료 조건")
+                .verifyComplete();
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.socrates.app.webflux.chat.client.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    private static ConcurrencyLimiter limiter(int limit, int maxQueue, Duration queueTimeout) {
+        return new ConcurrencyLimiter("test", () -> limit, maxQueue, queueTimeout, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void queuedCallStartsWhenThePermitIsReleased() {
+        ConcurrencyLimiter limiter = limiter(1, 1, Duration.ofSeconds(10));
+        Sinks.One<String> first = Sinks.one();
+
+        StepVerifier.create(limiter.limit(first.asMono()))
+                .then(() -> {
+                    assertThat(limiter.inFlight()).isEqualTo(1);
+                    StepVerifier.create(limiter.limit(Mono.just("second")))
+                            .then(() -> {
+                                assertThat(limiter.queued()).isEqualTo(1);
+                                first.tryEmitValue("first");
+                            })
+                            .expectNext("second")
+                            .verifyComplete();
+                })
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        ConcurrencyLimiter limiter = limiter(1, 1, Duration.ofSeconds(10));
+
+        limiter.limit(Mono.never()).subscribe();
+        limiter.limit(Mono.never()).subscribe();
+
+        StepVerifier.create(limiter.limit(Mono.just("third")))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+        assertThat(limiter.queued()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAfterQueueTimeoutAndLeavesTheQueue() {
+        ConcurrencyLimiter limiter = limiter(1, 1, Duration.ofSeconds(5));
+        limiter.limit(Mono.never()).subscribe();
+
+        StepVerifier.withVirtualTime(() -> limiter.limit(Mono.just("queued")))
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(5))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+        assertThat(limiter.queued()).isZero();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesPermitWhenCancelled() {
+        ConcurrencyLimiter limiter = limiter(1, 1, Duration.ofSeconds(10));
+
+        StepVerifier.create(limiter.limit(Mono.never()))
+                .expectSubscription()
+                .then(() -> assertThat(limiter.inFlight()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
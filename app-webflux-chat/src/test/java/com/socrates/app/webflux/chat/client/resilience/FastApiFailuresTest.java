@@ -0,0 +1,57 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastApiFailuresTest {
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, null, null, null);
+    }
+
+    private static WebClientRequestException requestFailure(Throwable cause) {
+        return new WebClientRequestException(cause, HttpMethod.POST, URI.create("http://fastapi/chat"), new HttpHeaders());
+    }
+
+    @Test
+    void retriesOnlyFailuresThatNeverReachedFastApi() {
+        assertThat(FastApiFailures.isRetryable(status(503))).isTrue();
+        assertThat(FastApiFailures.isRetryable(requestFailure(new ConnectException("Connection refused")))).isTrue();
+        assertThat(FastApiFailures.isRetryable(requestFailure(new ConnectTimeoutException("connect timed out")))).isTrue();
+        assertThat(FastApiFailures.isRetryable(requestFailure(new TimeoutException("pool acquire")))).isTrue();
+    }
+
+    @Test
+    void doesNotRetryFailuresThatMayHaveBeenProcessed() {
+        // 게이트웨이 오류와 응답 대기 중 타임아웃은 FastAPI가 이미 처리했을 수 있습니다
+        assertThat(FastApiFailures.isRetryable(status(500))).isFalse();
+        assertThat(FastApiFailures.isRetryable(status(502))).isFalse();
+        assertThat(FastApiFailures.isRetryable(status(504))).isFalse();
+        assertThat(FastApiFailures.isRetryable(status(429))).isFalse();
+        assertThat(FastApiFailures.isRetryable(requestFailure(ReadTimeoutException.INSTANCE))).isFalse();
+        assertThat(FastApiFailures.isRetryable(new TimeoutException("response timeout"))).isFalse();
+    }
+
+    @Test
+    void countsOnlyServerSideFailuresAsUpstreamFailures() {
+        assertThat(FastApiFailures.isUpstreamFailure(status(500))).isTrue();
+        assertThat(FastApiFailures.isUpstreamFailure(status(503))).isTrue();
+        assertThat(FastApiFailures.isUpstreamFailure(requestFailure(new ConnectException("Connection refused")))).isTrue();
+        assertThat(FastApiFailures.isUpstreamFailure(new TimeoutException("response timeout"))).isTrue();
+
+        assertThat(FastApiFailures.isUpstreamFailure(status(400))).isFalse();
+        assertThat(FastApiFailures.isUpstreamFailure(status(422))).isFalse();
+        assertThat(FastApiFailures.isUpstreamFailure(new IllegalStateException("decode"))).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimit;
+import com.socrates.app.webflux.chat.client.limit.ConcurrencyLimiter;
+import com.socrates.app.webflux.chat.config.FastApiProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilientLaneTest {
+
+    // 시도별로 기록된 샘플의 dropped 값
+    private final List<Boolean> samples = new CopyOnWriteArrayList<>();
+
+    private ConcurrencyLimiter limiter;
+    private ResilientLane lane;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimit limit = new ConcurrencyLimit() {
+            @Override
+            public int getLimit() {
+                return 1;
+            }
+
+            @Override
+            public void onSample(long rttNanos, int inFlight, boolean dropped) {
+                samples.add(dropped);
+            }
+        };
+        limiter = new ConcurrencyLimiter("test", limit, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        FastApiProperties.Resilience properties = new FastApiProperties.Resilience();
+        properties.getRetry().setBackoff(Duration.ofMillis(10));
+        lane = new ResilientLane("test", CircuitBreaker.ofDefaults("test"), limiter, properties, new SimpleMeterRegistry());
+    }
+
+    private static WebClientResponseException unavailable() {
+        return WebClientResponseException.create(503, "Service Unavailable", null, null, null);
+    }
+
+    @Test
+    void eachAttemptTakesItsOwnPermitAndSample() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Integer> inFlightPerAttempt = new CopyOnWriteArrayList<>();
+        Mono<String> call = Mono.defer(() -> {
+            inFlightPerAttempt.add(limiter.inFlight());
+            return attempts.incrementAndGet() == 1 ? Mono.error(unavailable()) : Mono.just("ok");
+        });
+
+        StepVerifier.create(lane.execute(call))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(inFlightPerAttempt).containsExactly(1, 1);
+        assertThat(samples).containsExactly(true, false);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void streamIsNotRetriedAfterTheFirstChunk() {
+        AtomicInteger attempts = new AtomicInteger();
+        Flux<String> call = Flux.defer(() -> {
+            attempts.incrementAndGet();
+            return Flux.just("chunk").concatWith(Mono.error(unavailable()));
+        });
+
+        StepVerifier.create(lane.execute(call))
+                .expectNext("chunk")
+                .expectError(WebClientResponseException.class)
+                .verify();
+
+        assertThat(attempts).hasValue(1);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,33 @@
+package com.socrates.app.webflux.chat.client.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void retriesAreBoundedByTheRequestRatio() {
+        // 초당 최소 재시도를 0으로 두어 시간에 따른 충전 없이 요청 비율만 확인합니다
+        RetryBudget budget = new RetryBudget(0.5, 0);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        budget.onRequest();
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.onRequest();
+        assertThat(budget.tryWithdraw()).isTrue();
+    }
+
+    @Test
+    void unusedTokensAreCappedAtTheReserve() {
+        RetryBudget budget = new RetryBudget(1.0, 0);
+
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        assertThat(budget.available()).isEqualTo(1.0);
+    }
+}
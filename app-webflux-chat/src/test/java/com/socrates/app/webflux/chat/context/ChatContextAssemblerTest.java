@@ -0,0 +1,104 @@
+package com.socrates.app.webflux.chat.context;
+
+import com.socrates.app.webflux.chat.config.ChatContextProperties;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import com.socrates.app.webflux.chat.dto.FastApiChatRequest;
+import com.socrates.app.webflux.chat.service.ChatSummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatContextAssemblerTest {
+
+    private static ChatContextAssembler assembler(ChatContextProperties properties) {
+        return new ChatContextAssembler(properties, new ChatSummaryService(properties), new SimpleMeterRegistry());
+    }
+
+    private static List<ChatRequest.ChatHistoryItem> history(int turns) {
+        List<ChatRequest.ChatHistoryItem> history = new ArrayList<>(turns);
+        for (int i = 0; i < turns; i++) {
+            history.add(ChatRequest.ChatHistoryItem.builder()
+                    .userMessage("question " + i)
+                    .assistantMessage("answer " + i)
+                    .build());
+        }
+        return history;
+    }
+
+    private static List<String> assemble(ChatContextAssembler assembler, List<ChatRequest.ChatHistoryItem> history) {
+        ChatRequest request = ChatRequest.builder()
+                .sessionId("s1")
+                .message("now")
+                .history(history)
+                .build();
+        FastApiChatRequest assembled = assembler.assemble(request).block(Duration.ofSeconds(5));
+        assertThat(assembled.getSessionId()).isEqualTo("s1");
+        return assembled.getData().getUser_input();
+    }
+
+    @Test
+    void sendsTheFullHistoryWhenWindowingIsDisabled() {
+        List<String> inputs = assemble(assembler(new ChatContextProperties()), history(30));
+
+        assertThat(inputs).hasSize(61).startsWith("question 0").endsWith("now");
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentTurns() {
+        ChatContextProperties properties = new ChatContextProperties();
+        properties.setEnabled(true);
+        properties.setMaxTurns(2);
+
+        ChatContextWindow window = assembler(properties).selectWindow(history(5), "now");
+
+        assertThat(window.keptTurns()).extracting(ChatRequest.ChatHistoryItem::getUserMessage)
+                .containsExactly("question 3", "question 4");
+        assertThat(window.droppedTurns()).hasSize(3);
+        assertThat(window.keptTokens()).isLessThan(window.originalTokens());
+    }
+
+    @Test
+    void stopsAtTheTokenBudget() {
+        ChatContextProperties properties = new ChatContextProperties();
+        properties.setEnabled(true);
+        // 현재 메시지(1토큰)와 턴 하나(question n, answer n: 5토큰)만 들어가는 예산
+        properties.setMaxTokens(8);
+
+        ChatContextWindow window = assembler(properties).selectWindow(history(5), "now");
+
+        assertThat(window.keptTurns()).extracting(ChatRequest.ChatHistoryItem::getUserMessage)
+                .containsExactly("question 4");
+    }
+
+    @Test
+    void summarizesExactlyTheDroppedTurns() {
+        ChatContextProperties properties = new ChatContextProperties();
+        properties.setEnabled(true);
+        properties.setMaxTurns(2);
+        properties.getSummary().setEnabled(true);
+
+        List<String> inputs = assemble(assembler(properties), history(5));
+
+        assertThat(inputs).containsExactly(
+                ChatContextAssembler.SUMMARY_LABEL,
+                "- question 0\n- question 1\n- question 2",
+                "question 3", "answer 3",
+                "question 4", "answer 4",
+                "now");
+    }
+
+    @Test
+    void dropsTheOldestSummaryLinesFirst() {
+        ChatContextProperties properties = new ChatContextProperties();
+        properties.getSummary().setMaxChars(30);
+
+        String summary = new ChatSummaryService(properties).rollingSummary(history(5));
+
+        assertThat(summary).isEqualTo("- question 3\n- question 4");
+    }
+}
@@ -0,0 +1,60 @@
+package com.socrates.app.webflux.chat.ratelimit;
+
+import com.socrates.app.webflux.chat.config.ChatRateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketLimiterTest {
+
+    // 테스트 도중 충전되지 않도록 아주 느린 충전 속도를 사용합니다
+    private static final double SLOW_REFILL = 1.0 / 60_000;
+
+    private LocalTokenBucketLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LocalTokenBucketLimiter(new ChatRateLimitProperties());
+    }
+
+    @Test
+    void rejectsOnceCapacityIsUsed() {
+        List<BucketRequest> requests = List.of(new BucketRequest("user", "user:a", 2, SLOW_REFILL));
+
+        assertThat(limiter.tryConsume(requests).allowed()).isTrue();
+        assertThat(limiter.tryConsume(requests).allowed()).isTrue();
+
+        RateLimitDecision rejected = limiter.tryConsume(requests);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.scope()).isEqualTo("user");
+        assertThat(rejected.retryAfterMillis()).isPositive().isLessThanOrEqualTo(60_000);
+    }
+
+    @Test
+    void consumesNothingWhenAnyBucketIsEmpty() {
+        BucketRequest user = new BucketRequest("user", "user:a", 5, SLOW_REFILL);
+        BucketRequest session = new BucketRequest("session", "session:s1", 1, SLOW_REFILL);
+
+        assertThat(limiter.tryConsume(List.of(user, session)).allowed()).isTrue();
+
+        RateLimitDecision rejected = limiter.tryConsume(List.of(user, session));
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.scope()).isEqualTo("session");
+
+        // 세션 버킷에서 거절된 요청은 사용자 버킷 토큰을 차감하지 않아야 합니다
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryConsume(List.of(user)).allowed()).isTrue();
+        }
+        assertThat(limiter.tryConsume(List.of(user)).allowed()).isFalse();
+    }
+
+    @Test
+    void keepsBucketsPerKey() {
+        assertThat(limiter.tryConsume(List.of(new BucketRequest("user", "user:a", 1, SLOW_REFILL))).allowed()).isTrue();
+        assertThat(limiter.tryConsume(List.of(new BucketRequest("user", "user:a", 1, SLOW_REFILL))).allowed()).isFalse();
+        assertThat(limiter.tryConsume(List.of(new BucketRequest("user", "user:b", 1, SLOW_REFILL))).allowed()).isTrue();
+    }
+}
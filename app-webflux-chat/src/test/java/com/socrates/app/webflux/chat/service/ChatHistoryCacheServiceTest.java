@@ -0,0 +1,147 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socrates.app.webflux.chat.config.ChatHistoryCacheProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import com.socrates.app.webflux.chat.repository.ChatMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.core.ReactiveListOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatHistoryCacheServiceTest {
+
+    private static final String KEY = "chat:history:{u1:s1}";
+    private static final String VERSION_KEY = KEY + ":version";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ReactiveStringRedisTemplate redisTemplate;
+    private ReactiveListOperations<String, String> listOperations;
+    private ReactiveValueOperations<String, String> valueOperations;
+    private ChatMessageRepository repository;
+    private ChatHistoryCacheService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        listOperations = mock(ReactiveListOperations.class);
+        valueOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), anyList()))
+                .thenReturn(Flux.just(1L));
+
+        repository = mock(ChatMessageRepository.class);
+        when(repository.findByUserIdAndSessionIdAndStatusOrderByCreatedAtAsc(
+                "u1", "s1", ChatMessage.MessageStatus.COMPLETED))
+                .thenReturn(Flux.just(completed("질문1", "답변1"), completed("질문2", "답변2")));
+
+        ChatMessageWriteBehindBuffer writeBehindBuffer = mock(ChatMessageWriteBehindBuffer.class);
+        when(writeBehindBuffer.flushSession(anyString())).thenReturn(Mono.empty());
+
+        ChatHistoryCacheProperties properties = new ChatHistoryCacheProperties();
+        properties.setEnabled(true);
+        service = new ChatHistoryCacheService(redisTemplate, repository, writeBehindBuffer, properties, objectMapper);
+    }
+
+    private static ChatMessage completed(String userMessage, String assistantMessage) {
+        return ChatMessage.builder()
+                .userId("u1")
+                .sessionId("s1")
+                .userMessage(userMessage)
+                .assistantMessage(assistantMessage)
+                .status(ChatMessage.MessageStatus.COMPLETED)
+                .build();
+    }
+
+    private String entry(String userMessage, String assistantMessage) throws Exception {
+        return objectMapper.writeValueAsString(new ChatRequest.ChatHistoryItem(userMessage, assistantMessage));
+    }
+
+    @Test
+    void cacheHitSkipsMongo() throws Exception {
+        when(listOperations.range(KEY, 0, -1)).thenReturn(Flux.just("~", entry("질문1", "답변1")));
+
+        StepVerifier.create(service.loadHistory("u1", "s1"))
+                .assertNext(history -> assertThat(history)
+                        .containsExactly(new ChatRequest.ChatHistoryItem("질문1", "답변1")))
+                .verifyComplete();
+
+        verify(repository, never())
+                .findByUserIdAndSessionIdAndStatusOrderByCreatedAtAsc(anyString(), anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void initializedEmptySessionIsACacheHit() {
+        when(listOperations.range(KEY, 0, -1)).thenReturn(Flux.just("~"));
+
+        StepVerifier.create(service.loadHistory("u1", "s1"))
+                .assertNext(history -> assertThat(history).isEmpty())
+                .verifyComplete();
+
+        verify(repository, never())
+                .findByUserIdAndSessionIdAndStatusOrderByCreatedAtAsc(anyString(), anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheMissRebuildsFromMongoAgainstTheVersionReadBeforehand() throws Exception {
+        when(listOperations.range(KEY, 0, -1)).thenReturn(Flux.empty());
+        when(valueOperations.get(VERSION_KEY)).thenReturn(Mono.just("3"));
+
+        StepVerifier.create(service.loadHistory("u1", "s1"))
+                .assertNext(history -> assertThat(history).containsExactly(
+                        new ChatRequest.ChatHistoryItem("질문1", "답변1"),
+                        new ChatRequest.ChatHistoryItem("질문2", "답변2")))
+                .verifyComplete();
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate)
+                .execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(List.of(KEY, VERSION_KEY)), args.capture());
+        // ttl, 확인한 버전, RPUSH 묶음 크기, 초기화 마커, 턴 목록
+        assertThat(args.getValue()).containsExactly(
+                String.valueOf(new ChatHistoryCacheProperties().getTtl().toMillis()), "3", "1000", "~",
+                entry("질문1", "답변1"), entry("질문2", "답변2"));
+    }
+
+    @Test
+    void redisFailureFallsBackToMongo() {
+        when(listOperations.range(KEY, 0, -1)).thenReturn(Flux.error(new IllegalStateException("redis down")));
+
+        StepVerifier.create(service.loadHistory("u1", "s1"))
+                .assertNext(history -> assertThat(history).hasSize(2))
+                .verifyComplete();
+    }
+
+    @Test
+    void appendsOnlyCompletedTurns() {
+        ChatMessage failed = completed("질문3", null).toBuilder().status(ChatMessage.MessageStatus.FAILED).build();
+
+        StepVerifier.create(service.append(failed)).verifyComplete();
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), anyList());
+
+        StepVerifier.create(service.append(completed("질문3", "답변3"))).verifyComplete();
+        verify(redisTemplate)
+                .execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(List.of(KEY, VERSION_KEY)), anyList());
+    }
+}
@@ -0,0 +1,41 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatHistoryCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @Test
+    void roundTripsThroughAnUrlSafeToken() {
+        ChatMessage message = ChatMessage.builder().id("665f1c2e9b1e8a3d4c5b6a79").createdAt(CREATED_AT).build();
+
+        String token = ChatHistoryCursor.after(message).encode();
+
+        assertThat(token).doesNotContain("+", "/", "=", "|");
+        assertThat(ChatHistoryCursor.decode(token))
+                .isEqualTo(new ChatHistoryCursor(CREATED_AT, "665f1c2e9b1e8a3d4c5b6a79"));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThat(ChatHistoryCursor.decode(null)).isNull();
+        assertThat(ChatHistoryCursor.decode(" ")).isNull();
+        assertThat(ChatHistoryCursor.decode("not base64!")).isNull();
+        assertThat(ChatHistoryCursor.decode(encode("2024-05-01T12:30:15"))).isNull();
+        assertThat(ChatHistoryCursor.decode(encode("2024-05-01T12:30:15|"))).isNull();
+        assertThat(ChatHistoryCursor.decode(encode("|665f1c2e9b1e8a3d4c5b6a79"))).isNull();
+        assertThat(ChatHistoryCursor.decode(encode("yesterday|665f1c2e9b1e8a3d4c5b6a79"))).isNull();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,159 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.socrates.app.webflux.chat.config.ChatPersistenceProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import com.socrates.app.webflux.chat.dto.ChatRequest;
+import com.socrates.app.webflux.chat.repository.ChatMessageRepository;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatMessageServiceTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final ChatHistoryCacheService chatHistoryCacheService = mock(ChatHistoryCacheService.class);
+    private ChatMessageWriteBehindBuffer writeBehindBuffer;
+
+    @AfterEach
+    void tearDown() {
+        writeBehindBuffer.shutdown();
+    }
+
+    private ChatMessageService service(boolean writeBehind) {
+        ChatPersistenceProperties properties = new ChatPersistenceProperties();
+        properties.getWriteBehind().setEnabled(writeBehind);
+        // 테스트 도중 주기 flush로 큐가 비워지지 않도록 합니다
+        properties.getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        writeBehindBuffer = new ChatMessageWriteBehindBuffer(mongoTemplate, properties);
+        writeBehindBuffer.start();
+        when(chatHistoryCacheService.append(any())).thenReturn(Mono.empty());
+        // 큐에 있는 메시지의 전환은 MongoDB에 바로 쓰지 않아야 합니다
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ChatMessage.class)))
+                .thenReturn(Mono.error(new AssertionError("direct update")));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ChatMessage.class)))
+                .thenReturn(Mono.error(new AssertionError("direct update")));
+        return new ChatMessageService(mock(ChatMessageRepository.class), mongoTemplate, chatHistoryCacheService,
+                writeBehindBuffer);
+    }
+
+    private static ChatRequest request() {
+        return ChatRequest.builder().message("질문").userId("u1").sessionId("s1").build();
+    }
+
+    private static ChatMessage inProgress(String id) {
+        return ChatMessage.builder().id(id).sessionId("s1").status(ChatMessage.MessageStatus.STREAMING).build();
+    }
+
+    @Test
+    void directTransitionIsGuardedByTheExpectedStatus() {
+        ChatMessageService service = service(false);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ChatMessage.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+        StepVerifier.create(service.markStreaming("m1"))
+                .expectNext(false)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(ChatMessage.class));
+        Document status = query.getValue().getQueryObject().get("status", Document.class);
+        assertThat(status.get("$in"))
+                .asInstanceOf(InstanceOfAssertFactories.ITERABLE)
+                .containsExactly(ChatMessage.MessageStatus.PENDING);
+    }
+
+    @Test
+    void completionThatMatchesNothingSkipsTheHistoryCache() {
+        ChatMessageService service = service(false);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ChatMessage.class)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(service.updateCompletedMessage(inProgress("m1"), "답변", false))
+                .verifyComplete();
+
+        verify(chatHistoryCacheService, never()).append(any());
+    }
+
+    @Test
+    void queuedMessageCannotBeCompletedAfterItFailed() {
+        ChatMessageService service = service(true);
+        ChatMessage saved = service.savePendingMessage(request()).block();
+
+        StepVerifier.create(service.updateFailedMessage(saved.getId()))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(service.updateCompletedMessage(saved, "답변", false))
+                .verifyComplete();
+
+        verify(chatHistoryCacheService, never()).append(any());
+    }
+
+    @Test
+    void lateFailureDoesNotOverwriteAQueuedCompletion() {
+        ChatMessageService service = service(true);
+        ChatMessage saved = service.savePendingMessage(request()).block();
+
+        StepVerifier.create(service.markStreaming(saved.getId()))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(service.updateCompletedMessage(saved, "답변", true))
+                .assertNext(completed -> {
+                    assertThat(completed.getStatus()).isEqualTo(ChatMessage.MessageStatus.COMPLETED);
+                    assertThat(completed.getAssistantMessage()).isEqualTo("답변");
+                })
+                .verifyComplete();
+        StepVerifier.create(service.updateFailedMessage(saved.getId()))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(chatHistoryCacheService).append(any());
+        // 큐에는 복사본이 들어가므로 호출자의 객체는 바뀌지 않습니다
+        assertThat(saved.getStatus()).isEqualTo(ChatMessage.MessageStatus.PENDING);
+    }
+
+    @Test
+    void historyPageSeeksPastTheCursorInKeysetOrder() {
+        ChatMessageService service = service(false);
+        when(mongoTemplate.find(any(Query.class), eq(ChatMessage.class))).thenReturn(Flux.empty());
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        StepVerifier.create(service.getChatHistoryPage("s1", new ChatHistoryCursor(createdAt, "m1"), 20, true))
+                .verifyComplete();
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(ChatMessage.class));
+        Query query = captor.getValue();
+        // 같은 createdAt이면 _id로 이어서 읽어야 경계의 메시지가 빠지거나 중복되지 않습니다
+        assertThat(query.getQueryObject()).isEqualTo(new Document("sessionId", "s1")
+                .append("$or", List.of(
+                        new Document("createdAt", new Document("$gt", createdAt)),
+                        new Document("createdAt", createdAt).append("id", new Document("$gt", "m1")))));
+        assertThat(query.getSortObject()).isEqualTo(new Document("createdAt", 1).append("id", 1));
+        assertThat(query.getLimit()).isEqualTo(20);
+        assertThat(query.getFieldsObject()).doesNotContainKey("assistantMessage");
+    }
+}
@@ -0,0 +1,183 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.socrates.app.webflux.chat.config.ChatPersistenceProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatMessageWriteBehindBufferTest {
+
+    private static final Set<ChatMessage.MessageStatus> PENDING = Set.of(ChatMessage.MessageStatus.PENDING);
+
+    // bulk write마다 기록된 문서와 upsert 여부
+    private final List<List<ChatMessage>> writes = new CopyOnWriteArrayList<>();
+    private final List<Boolean> upserts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    private ChatMessageWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(ChatMessage.class)))
+                .thenAnswer(invocation -> recordingBulk());
+
+        ChatPersistenceProperties properties = new ChatPersistenceProperties();
+        properties.getWriteBehind().setEnabled(true);
+        // 주기 flush가 끼어들지 않도록 명시적인 flush로만 반영합니다
+        properties.getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        buffer = new ChatMessageWriteBehindBuffer(mongoTemplate, properties);
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    private ReactiveBulkOperations recordingBulk() {
+        ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+        List<ChatMessage> documents = new CopyOnWriteArrayList<>();
+        when(bulk.replaceOne(any(Query.class), any(), any(FindAndReplaceOptions.class))).thenAnswer(invocation -> {
+            ChatMessage document = invocation.getArgument(1);
+            documents.add(document.toBuilder().build());
+            upserts.add(invocation.<FindAndReplaceOptions>getArgument(2).isUpsert());
+            return bulk;
+        });
+        when(bulk.execute()).thenAnswer(invocation -> Mono.defer(() -> {
+            if (failuresLeft.getAndDecrement() > 0) {
+                return Mono.error(new IllegalStateException("mongo down"));
+            }
+            writes.add(documents);
+            return Mono.just(mock(BulkWriteResult.class));
+        }));
+        return bulk;
+    }
+
+    private static ChatMessage pending(String id, String sessionId) {
+        return ChatMessage.builder()
+                .id(id)
+                .sessionId(sessionId)
+                .userMessage("안녕하세요")
+                .status(ChatMessage.MessageStatus.PENDING)
+                .build();
+    }
+
+    private static Boolean markStreaming(ChatMessage message) {
+        if (!PENDING.contains(message.getStatus())) {
+            return false;
+        }
+        message.setStatus(ChatMessage.MessageStatus.STREAMING);
+        return true;
+    }
+
+    private static Mono<Boolean> unexpectedDirect() {
+        return Mono.error(new AssertionError("큐에 있는 메시지는 직접 쓰기를 하면 안 됩니다"));
+    }
+
+    @Test
+    void appliesGuardedTransitionsToAQueuedMessage() {
+        StepVerifier.create(buffer.insert(pending("m1", "s1"))
+                        .then(buffer.transition("m1", ChatMessageWriteBehindBufferTest::markStreaming, unexpectedDirect())))
+                .expectNext(true)
+                .verifyComplete();
+
+        // 이미 STREAMING이므로 같은 PENDING 조건 전환은 반영되지 않아야 합니다
+        StepVerifier.create(buffer.transition("m1", ChatMessageWriteBehindBufferTest::markStreaming, unexpectedDirect()))
+                .expectNext(false)
+                .verifyComplete();
+
+        StepVerifier.create(buffer.flush()).verifyComplete();
+        assertThat(writes).singleElement().satisfies(batch -> assertThat(batch).singleElement()
+                .extracting(ChatMessage::getStatus)
+                .isEqualTo(ChatMessage.MessageStatus.STREAMING));
+    }
+
+    @Test
+    void runsTheDirectWriteOnceTheMessageIsWritten() {
+        StepVerifier.create(buffer.insert(pending("m1", "s1")).then(buffer.flush())).verifyComplete();
+
+        StepVerifier.create(buffer.transition("m1", message -> {
+                            throw new AssertionError("기록된 메시지는 큐에서 전환하면 안 됩니다");
+                        }, Mono.just(false)))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void doesNotLeakTransitionsIntoTheCallersObject() {
+        ChatMessage message = pending("m1", "s1");
+
+        StepVerifier.create(buffer.insert(message)
+                        .then(buffer.transition("m1", ChatMessageWriteBehindBufferTest::markStreaming, unexpectedDirect())))
+                .expectNext(true)
+                .verifyComplete();
+        assertThat(message.getStatus()).isEqualTo(ChatMessage.MessageStatus.PENDING);
+    }
+
+    @Test
+    void writesDocumentsAsIdempotentUpserts() {
+        failuresLeft.set(1);
+
+        StepVerifier.create(buffer.insert(pending("m1", "s1")).then(buffer.flush())).verifyComplete();
+
+        assertThat(upserts).isNotEmpty().containsOnly(true);
+        assertThat(writes).singleElement().satisfies(batch -> assertThat(batch).hasSize(1));
+    }
+
+    @Test
+    void requeuesAndReportsABatchThatKeepsFailing() {
+        failuresLeft.set(3);
+
+        StepVerifier.create(buffer.insert(pending("m1", "s1")).then(buffer.flush()))
+                .expectErrorMessage("Retries exhausted: 2/2")
+                .verify(Duration.ofSeconds(5));
+        assertThat(writes).isEmpty();
+
+        // 실패한 문서는 큐로 돌아와 여전히 큐에서 전환되고, 다음 flush에서 기록됩니다
+        StepVerifier.create(buffer.transition("m1", ChatMessageWriteBehindBufferTest::markStreaming, unexpectedDirect()))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(buffer.flush()).verifyComplete();
+        assertThat(writes).singleElement().satisfies(batch -> assertThat(batch).singleElement()
+                .extracting(ChatMessage::getStatus)
+                .isEqualTo(ChatMessage.MessageStatus.STREAMING));
+    }
+
+    @Test
+    void flushSessionWritesOnlyThatSession() {
+        StepVerifier.create(buffer.insert(pending("m1", "s1"))
+                        .then(buffer.insert(pending("m2", "s2")))
+                        .then(buffer.flushSession("s1")))
+                .verifyComplete();
+
+        assertThat(writes).singleElement().satisfies(batch -> assertThat(batch)
+                .extracting(ChatMessage::getId)
+                .containsExactly("m1"));
+
+        StepVerifier.create(buffer.flush()).verifyComplete();
+        assertThat(writes).hasSize(2);
+        assertThat(writes.get(1)).extracting(ChatMessage::getId).containsExactly("m2");
+    }
+}
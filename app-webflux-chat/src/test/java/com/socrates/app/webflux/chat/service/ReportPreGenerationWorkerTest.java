@@ -0,0 +1,90 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.config.ChatReportProperties;
+import com.socrates.app.webflux.chat.domain.SessionReport;
+import com.socrates.app.webflux.chat.repository.SessionReportRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportPreGenerationWorkerTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private SessionReportService sessionReportService;
+    private ReportEventPublisher publisher;
+    private ReportPreGenerationWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        SessionReportRepository repository = mock(SessionReportRepository.class);
+        when(repository.findBySessionId(anyString())).thenReturn(Mono.empty());
+        publisher = new ReportEventPublisher(repository);
+        sessionReportService = mock(SessionReportService.class);
+
+        ChatReportProperties properties = new ChatReportProperties();
+        properties.getPreGeneration().setMaxRetries(2);
+        properties.getPreGeneration().setRetryBackoff(Duration.ofMillis(10));
+        worker = new ReportPreGenerationWorker(sessionReportService, publisher, properties);
+        worker.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    /**
+     * SessionReportService처럼 저장 시점에 실패/완료를 알리는 시도입니다.
+     */
+    private Mono<SessionReport> attempt(int failures) {
+        return Mono.fromSupplier(() -> {
+            if (attempts.incrementAndGet() <= failures) {
+                publisher.publishFailure("s1");
+                return SessionReport.builder().sessionId("s1").status(SessionReport.ReportStatus.FAILED).build();
+            }
+            publisher.publish("s1", "## 리포트");
+            return SessionReport.builder().sessionId("s1").status(SessionReport.ReportStatus.COMPLETED).build();
+        });
+    }
+
+    @Test
+    void keepsSubscribersWaitingWhileRetrying() {
+        when(sessionReportService.generateReport("s1")).thenReturn(Mono.defer(() -> attempt(2)));
+
+        StepVerifier.create(publisher.subscribe("s1", Duration.ofSeconds(5)))
+                .then(() -> worker.enqueue("s1"))
+                .expectNextMatches(event -> "report".equals(event.getEvent()))
+                .verifyComplete();
+    }
+
+    @Test
+    void reportsFailureOnlyAfterRetriesAreExhausted() {
+        when(sessionReportService.generateReport("s1")).thenReturn(Mono.defer(() -> attempt(Integer.MAX_VALUE)));
+
+        StepVerifier.create(publisher.subscribe("s1", Duration.ofSeconds(5)))
+                .then(() -> worker.enqueue("s1"))
+                .expectNextMatches(event -> "error".equals(event.getEvent()))
+                .verifyComplete();
+        // 최초 시도 + 재시도 2회
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void reportsOnDemandFailuresImmediately() {
+        StepVerifier.create(publisher.subscribe("s1", Duration.ofSeconds(5)))
+                .then(() -> publisher.publishFailure("s1"))
+                .expectNextMatches(event -> "error".equals(event.getEvent()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,166 @@
+package com.socrates.app.webflux.chat.service;
+
+import com.socrates.app.webflux.chat.client.FastApiReportClient;
+import com.socrates.app.webflux.chat.config.ChatReportProperties;
+import com.socrates.app.webflux.chat.domain.ChatMessage;
+import com.socrates.app.webflux.chat.domain.SessionReport;
+import com.socrates.app.webflux.chat.dto.FastApiReportResponse;
+import com.socrates.app.webflux.chat.repository.SessionReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionReportServiceTest {
+
+    private final AtomicInteger fastApiCalls = new AtomicInteger();
+    // 저장된 리포트 (id 기준)
+    private final Map<String, SessionReport> reports = new ConcurrentHashMap<>();
+
+    private FastApiReportClient fastApiReportClient;
+    private SessionReportRepository repository;
+    private ReportGenerationLock lock;
+    private ChatReportProperties properties;
+    private SessionReportService service;
+
+    @BeforeEach
+    void setUp() {
+        fastApiReportClient = mock(FastApiReportClient.class);
+        when(fastApiReportClient.generateReport(any())).thenAnswer(invocation -> Mono.delay(Duration.ofMillis(100))
+                .doOnSubscribe(subscription -> fastApiCalls.incrementAndGet())
+                .thenReturn(FastApiReportResponse.builder().success(true).report("## 리포트").build()));
+
+        repository = mock(SessionReportRepository.class);
+        when(repository.findBySessionId(anyString())).thenAnswer(invocation -> Mono.defer(() -> Mono.justOrEmpty(
+                reports.values().stream()
+                        .filter(report -> report.getSessionId().equals(invocation.getArgument(0)))
+                        .findFirst())));
+        when(repository.findById(anyString())).thenAnswer(invocation ->
+                Mono.defer(() -> Mono.justOrEmpty(reports.get(invocation.<String>getArgument(0)))));
+        when(repository.save(any(SessionReport.class))).thenAnswer(invocation -> {
+            SessionReport report = invocation.getArgument(0);
+            if (report.getId() == null) {
+                report.setId("r-" + report.getSessionId());
+            }
+            reports.put(report.getId(), report);
+            return Mono.just(report);
+        });
+
+        ChatMessageService chatMessageService = mock(ChatMessageService.class);
+        when(chatMessageService.getChatHistory(anyString())).thenReturn(Flux.just(ChatMessage.builder()
+                .userId("u1")
+                .sessionId("s1")
+                .userMessage("질문")
+                .assistantMessage("답변")
+                .status(ChatMessage.MessageStatus.COMPLETED)
+                .build()));
+
+        lock = mock(ReportGenerationLock.class);
+        when(lock.renew(anyString(), anyString())).thenReturn(Mono.just(true));
+        when(lock.release(anyString(), anyString())).thenReturn(Mono.empty());
+
+        properties = new ChatReportProperties();
+        service = new SessionReportService(fastApiReportClient, repository, chatMessageService, lock,
+                mock(ReportEventPublisher.class), properties);
+    }
+
+    private static SessionReport stored(SessionReport.ReportStatus status) {
+        return SessionReport.builder().id("r-s1").userId("u1").sessionId("s1").status(status).build();
+    }
+
+    @Test
+    void concurrentRequestsShareOneGeneration() {
+        StepVerifier.create(Flux.merge(service.generateReport("s1"), service.generateReport("s1")))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertThat(fastApiCalls).hasValue(1);
+        assertThat(reports.get("r-s1").getStatus()).isEqualTo(SessionReport.ReportStatus.COMPLETED);
+    }
+
+    @Test
+    void renewsTheDistributedLockWhileGenerating() {
+        properties.getSingleFlight().setDistributed(true);
+        properties.getSingleFlight().setLockTtl(Duration.ofMillis(30));
+        when(lock.tryAcquire(eq("s1"), anyString())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.generateReport("s1"))
+                .assertNext(report -> assertThat(report.getStatus()).isEqualTo(SessionReport.ReportStatus.COMPLETED))
+                .verifyComplete();
+
+        verify(lock, atLeast(2)).renew(eq("s1"), anyString());
+        verify(lock).release(eq("s1"), anyString());
+    }
+
+    @Test
+    void waitsForTheLockHolderInsteadOfReturningAStaleFailure() {
+        properties.getSingleFlight().setDistributed(true);
+        properties.getSingleFlight().setPollInterval(Duration.ofMillis(10));
+        properties.getSingleFlight().setWaitTimeout(Duration.ofSeconds(5));
+        when(lock.tryAcquire(eq("s1"), anyString())).thenReturn(Mono.just(false));
+        reports.put("r-s1", stored(SessionReport.ReportStatus.FAILED));
+
+        // 세 번째 확인 때 락을 가진 인스턴스가 재생성을 마칩니다
+        AtomicInteger checks = new AtomicInteger();
+        when(lock.isHeld("s1")).thenAnswer(invocation -> {
+            if (checks.incrementAndGet() == 3) {
+                reports.put("r-s1", stored(SessionReport.ReportStatus.COMPLETED));
+            }
+            return Mono.just(true);
+        });
+
+        StepVerifier.create(service.generateReport("s1"))
+                .assertNext(report -> assertThat(report.getStatus()).isEqualTo(SessionReport.ReportStatus.COMPLETED))
+                .verifyComplete();
+        assertThat(checks).hasValue(3);
+        assertThat(fastApiCalls).hasValue(0);
+    }
+
+    @Test
+    void returnsTheFailureOnceTheLockIsReleased() {
+        properties.getSingleFlight().setDistributed(true);
+        properties.getSingleFlight().setPollInterval(Duration.ofMillis(10));
+        when(lock.tryAcquire(eq("s1"), anyString())).thenReturn(Mono.just(false));
+        when(lock.isHeld("s1")).thenReturn(Mono.just(false));
+        reports.put("r-s1", stored(SessionReport.ReportStatus.FAILED));
+
+        StepVerifier.create(service.generateReport("s1"))
+                .assertNext(report -> assertThat(report.getStatus()).isEqualTo(SessionReport.ReportStatus.FAILED))
+                .verifyComplete();
+        verify(fastApiReportClient, never()).generateReport(any());
+    }
+
+    @Test
+    void reusesTheReportCreatedConcurrentlyWhenThePendingInsertCollides() {
+        // 다른 인스턴스가 먼저 완료된 리포트를 저장해 unique 인덱스 충돌이 납니다
+        when(repository.save(any(SessionReport.class))).thenAnswer(invocation -> Mono.defer(() -> {
+            reports.put("r-s1", stored(SessionReport.ReportStatus.COMPLETED));
+            return Mono.error(new DuplicateKeyException("E11000 duplicate key error"));
+        }));
+
+        StepVerifier.create(service.generateReport("s1"))
+                .assertNext(report -> {
+                    assertThat(report.getId()).isEqualTo("r-s1");
+                    assertThat(report.getStatus()).isEqualTo(SessionReport.ReportStatus.COMPLETED);
+                })
+                .verifyComplete();
+        verify(fastApiReportClient, never()).generateReport(any());
+    }
+}
@@ -0,0 +1,109 @@
+package com.socrates.app.webflux.chat.sse;
+
+import com.socrates.app.webflux.chat.config.ChatStreamProperties;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseChunkCoalescerTest {
+
+    private final SseChunkCoalescer coalescer = new SseChunkCoalescer(new ChatStreamProperties());
+
+    private static SseEvent chunk(String content, String id) {
+        SseEvent event = SseEvent.chatMessage(content);
+        event.setId(id);
+        return event;
+    }
+
+    @Test
+    void sendsTheFirstChunkAtOnceAndMergesTheRestWithinTheLatencyWindow() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        Sinks.Many<SseEvent> upstream = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(coalescer.coalesce(upstream.asFlux(), 64, Duration.ofMillis(30), scheduler))
+                .then(() -> upstream.tryEmitNext(chunk("안녕", "m:1")))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("안녕"))
+                .then(() -> {
+                    upstream.tryEmitNext(chunk("하세", "m:2"));
+                    upstream.tryEmitNext(chunk("요", "m:3"));
+                })
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(30)))
+                .assertNext(event -> {
+                    assertThat(event.getData()).isEqualTo("하세요");
+                    assertThat(event.getId()).isEqualTo("m:3");
+                })
+                .then(upstream::tryEmitComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void flushesAsSoonAsTheByteBudgetIsReached() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        Flux<SseEvent> events = Flux.just(chunk("a", "m:1"), chunk("bc", "m:2"), chunk("de", "m:3"), chunk("f", "m:4"))
+                .concatWith(Flux.never());
+
+        StepVerifier.create(coalescer.coalesce(events, 4, Duration.ofSeconds(10), scheduler))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("a"))
+                .assertNext(event -> {
+                    assertThat(event.getData()).isEqualTo("bcde");
+                    assertThat(event.getId()).isEqualTo("m:3");
+                })
+                .expectNoEvent(Duration.ZERO)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void flushesPendingChunksBeforeOtherEventsAndErrors() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        Flux<SseEvent> events = Flux.just(chunk("a", "m:1"), chunk("b", "m:2"), chunk("c", "m:3"), SseEvent.chatEnd("s1"))
+                .concatWith(Flux.just(chunk("d", "m:4")))
+                .concatWith(Flux.error(new IllegalStateException("upstream")));
+
+        StepVerifier.create(coalescer.coalesce(events, 64, Duration.ofSeconds(10), scheduler))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("a"))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("bc"))
+                .assertNext(event -> assertThat(event.getEvent()).isEqualTo("chat_end"))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("d"))
+                .verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    void requestsFromUpstreamOnlyAsMuchAsTheClientReads() {
+        AtomicLong requested = new AtomicLong();
+        Flux<SseEvent> events = Flux.range(0, 10_000)
+                .map(i -> chunk("x", "m:" + i))
+                .doOnRequest(n -> requested.updateAndGet(total -> total + n < 0 ? Long.MAX_VALUE : total + n));
+
+        StepVerifier.create(coalescer.coalesce(events, 4, Duration.ofSeconds(10), VirtualTimeScheduler.create()), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        assertThat(requested.get()).isLessThan(10_000);
+    }
+
+    @Test
+    void clampsPerRequestOverridesToTheConfiguredLimits() {
+        ChatStreamProperties properties = new ChatStreamProperties();
+        properties.getCoalesce().setMaxBytesLimit(4);
+        SseChunkCoalescer limited = new SseChunkCoalescer(properties);
+        Flux<SseEvent> events = Flux.just(chunk("a", "m:1"), chunk("bc", "m:2"), chunk("de", "m:3"), chunk("f", "m:4"));
+
+        // 요청한 1MB 예산은 4바이트 상한으로 제한됩니다
+        StepVerifier.create(limited.coalesce(events, 1 << 20, Duration.ofSeconds(10)))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("a"))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("bcde"))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("f"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,91 @@
+package com.socrates.app.webflux.chat.sse;
+
+import com.socrates.app.webflux.chat.config.ChatStreamProperties;
+import com.socrates.app.webflux.chat.dto.SseEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseReplayBufferTest {
+
+    private static SseReplayBuffer buffer(Duration detachGrace) {
+        ChatStreamProperties properties = new ChatStreamProperties();
+        properties.getResume().setDetachGrace(detachGrace);
+        return new SseReplayBuffer(properties);
+    }
+
+    private static String content(List<SseEvent> events) {
+        return events.stream()
+                .filter(event -> "message".equals(event.getEvent()))
+                .map(event -> (String) event.getData())
+                .collect(Collectors.joining());
+    }
+
+    @Test
+    void deliversTheWholeResponseToTheFirstSubscriber() {
+        SseReplayBuffer buffer = buffer(Duration.ZERO);
+        Flux<SseEvent> generation = Flux.just(
+                SseEvent.chatMessage("Hel"), SseEvent.chatMessage("lo"), SseEvent.chatEnd("s1"));
+
+        List<SseEvent> events = buffer.attach("m1", generation).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(content(events)).isEqualTo("Hello");
+        assertThat(events.get(events.size() - 1).getEvent()).isEqualTo("chat_end");
+        assertThat(events.get(events.size() - 1).getId()).isEqualTo("m1:3:5");
+    }
+
+    @Test
+    void resumesFromTheLastEventId() {
+        SseReplayBuffer buffer = buffer(Duration.ZERO);
+        Flux<SseEvent> generation = Flux.just(
+                SseEvent.chatMessage("Hel"), SseEvent.chatMessage("lo"), SseEvent.chatEnd("s1"));
+        buffer.attach("m1", generation).blockLast(Duration.ofSeconds(5));
+
+        List<SseEvent> events = buffer.resume(new SseEventId("m1", 1, 3))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(events).extracting(SseEvent::getEvent).containsExactly("message", "chat_end");
+        assertThat(events.get(0).getData()).isEqualTo("lo");
+        assertThat(events.get(0).getId()).isEqualTo("m1:2:5");
+    }
+
+    @Test
+    void cancelsGenerationWhenTheLastSubscriberLeaves() {
+        SseReplayBuffer buffer = buffer(Duration.ZERO);
+        Sinks.Many<SseEvent> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        Flux<SseEvent> generation = upstream.asFlux();
+
+        StepVerifier.create(buffer.attach("m1", generation))
+                .then(() -> upstream.tryEmitNext(SseEvent.chatMessage("partial")))
+                .assertNext(event -> assertThat(event.getData()).isEqualTo("partial"))
+                .thenCancel()
+                .verify();
+
+        List<SseEvent> events = buffer.resume(new SseEventId("m1", 0, 0))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(content(events)).isEqualTo("partial");
+        SseEvent last = events.get(events.size() - 1);
+        assertThat(last.getEvent()).isEqualTo("error");
+        assertThat(((SseEvent.ErrorData) last.getData()).getCode()).isEqualTo("STREAM_CANCELLED");
+    }
+
+    @Test
+    void bypassesTheBufferWhenResumeIsDisabled() {
+        ChatStreamProperties properties = new ChatStreamProperties();
+        properties.getResume().setEnabled(false);
+        SseReplayBuffer buffer = new SseReplayBuffer(properties);
+        Flux<SseEvent> generation = Flux.just(SseEvent.chatMessage("hi"));
+
+        assertThat(buffer.attach("m1", generation)).isSameAs(generation);
+        assertThat(buffer.resume(new SseEventId("m1", 0, 0))).isNull();
+    }
+}